@@ -0,0 +1,47 @@
+package com.gic.minesweeper.benchmark;
+
+import com.gic.minesweeper.service.MinesweeperGridService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This measures board construction: mine placement plus adjacent mine counting.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardGenerationBenchmark {
+
+    @Param({"64", "512", "2048"})
+    private int size;
+
+    @Param({"0.05", "0.2", "0.35"})
+    private double density;
+
+    private int mines;
+    private long seed;
+
+    @Setup
+    public void setUp() {
+        mines = Math.max(1, (int) (size * size * density));
+    }
+
+    @Benchmark
+    public MinesweeperGridService generate() {
+        return new MinesweeperGridService(size, mines, seed++);
+    }
+}
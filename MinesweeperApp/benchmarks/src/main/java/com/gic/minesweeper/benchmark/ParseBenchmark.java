@@ -0,0 +1,41 @@
+package com.gic.minesweeper.benchmark;
+
+import com.gic.minesweeper.service.CoordinateCodec;
+import com.gic.minesweeper.service.MinesweeperGridService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This measures parsing square names, through the allocation-free codec and through parseSquare.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+
+    @Param({"B7", "AB1234"})
+    private String square;
+
+    @Benchmark
+    public long codec() {
+        return CoordinateCodec.parse(square);
+    }
+
+    @Benchmark
+    public int[] parseSquare() {
+        return MinesweeperGridService.parseSquare(square);
+    }
+}
@@ -0,0 +1,69 @@
+package com.gic.minesweeper.benchmark;
+
+import com.gic.minesweeper.controller.GameController;
+import com.gic.minesweeper.model.MinesweeperBoard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This measures rendering after a move that changed one row, as a full String, a full frame written to a Writer,
+ * and only the changed rows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderBenchmark {
+
+    @Param({"64", "512", "2048"})
+    private int size;
+
+    private GameController game;
+    private MinesweeperBoard board;
+    private Writer writer;
+    private int row;
+
+    @Setup
+    public void setUp() {
+        game = new GameController(size, Math.max(1, size * size / 5), 42L);
+        board = game.getGrid().getBoard();
+        writer = Writer.nullWriter();
+    }
+
+    private void changeRow() {
+        row = (row + 1) % size;
+        board.markRowDirty(row);
+    }
+
+    @Benchmark
+    public String gridView() {
+        changeRow();
+        return game.gridView();
+    }
+
+    @Benchmark
+    public void writeGridView() {
+        changeRow();
+        game.writeGridView(writer);
+    }
+
+    @Benchmark
+    public void writeGridChanges() {
+        changeRow();
+        game.writeGridChanges(writer);
+    }
+}
@@ -0,0 +1,107 @@
+package com.gic.minesweeper.benchmark;
+
+import com.gic.minesweeper.model.MinesweeperBoard;
+import com.gic.minesweeper.service.AdaptiveMinePlacement;
+import com.gic.minesweeper.service.MinesweeperGridService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This measures revealCell.
+ * The cascade benchmark reveals a whole board with a single mine in one click, the worst case for the cascade.
+ * The per-move benchmark reveals every numbered square one click at a time, so it is dominated by the
+ * per-move bookkeeping such as the win check.
+ * Each benchmark has its own grid, restored before every invocation through reset, which reuses the board storage
+ * and the placement scratch, so the allocation profile reports what the reveals allocate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RevealBenchmark {
+
+    private static final long SEED = 42L;
+
+    @State(Scope.Thread)
+    public static class CascadeState {
+
+        @Param({"64", "512", "2048"})
+        private int size;
+
+        private MinesweeperGridService grid;
+
+        @Setup(Level.Trial)
+        public void createGrid() {
+            grid = new MinesweeperGridService(size, 1, new SplittableRandom(SEED),
+                    (board, mines, random) -> board.setMine(0, true));
+        }
+
+        @Setup(Level.Invocation)
+        public void resetGrid() {
+            grid.reset(new SplittableRandom(SEED));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class MovesState {
+
+        @Param({"64", "512", "2048"})
+        private int size;
+
+        @Param({"0.2"})
+        private double density;
+
+        private MinesweeperGridService grid;
+        private int[] numberedSquares;
+
+        @Setup(Level.Trial)
+        public void createGrid() {
+            grid = new MinesweeperGridService(size, Math.max(1, (int) (size * size * density)),
+                    new SplittableRandom(SEED), new AdaptiveMinePlacement(true));
+            MinesweeperBoard board = grid.getBoard();
+            int count = 0;
+            int[] squares = new int[board.getSquareCount()];
+            for (int index = 0; index < board.getSquareCount(); index++) {
+                if (!board.isMine(index) && board.getAdjacentMines(index) > 0) {
+                    squares[count++] = index;
+                }
+            }
+            numberedSquares = Arrays.copyOf(squares, count);
+        }
+
+        @Setup(Level.Invocation)
+        public void resetGrid() {
+            grid.reset(new SplittableRandom(SEED));
+        }
+    }
+
+    @Benchmark
+    public int worstCaseCascade(CascadeState state) {
+        state.grid.revealCell(state.size - 1, state.size - 1);
+        return state.grid.getLastRevealedCount();
+    }
+
+    @Benchmark
+    public int revealEveryNumberedSquare(MovesState state) {
+        int size = state.size;
+        for (int index : state.numberedSquares) {
+            state.grid.revealCell(index / size, index % size);
+        }
+        return state.grid.getRemainingSafeSquares();
+    }
+}
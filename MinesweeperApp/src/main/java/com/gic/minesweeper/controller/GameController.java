@@ -1,7 +1,20 @@
 package com.gic.minesweeper.controller;
 
-import com.gic.minesweeper.model.MinesweeperGridCell;
+import com.gic.minesweeper.metrics.GameMetrics;
+import com.gic.minesweeper.metrics.RenderEvent;
+import com.gic.minesweeper.metrics.SelectSquareEvent;
+import com.gic.minesweeper.model.MinesweeperBoard;
+import com.gic.minesweeper.persistence.MoveJournal;
+import com.gic.minesweeper.service.CoordinateCodec;
 import com.gic.minesweeper.service.MinesweeperGridService;
+import com.gic.minesweeper.service.MoveBatchResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * This is the Minesweeper controller class.
@@ -10,65 +23,280 @@ import com.gic.minesweeper.service.MinesweeperGridService;
 public class GameController {
 
     private MinesweeperGridService minesweeperGrid;
+    private GridRenderer gridRenderer;
+    private MoveJournal moveJournal;
 
     public GameController(int size, int mines) {
-        this.minesweeperGrid = new MinesweeperGridService(size, mines);
+        this(new MinesweeperGridService(size, mines));
+    }
+
+    /**
+     * Creates a game whose board is fully determined by the seed, so it can be replayed from a MoveJournal.
+     */
+    public GameController(int size, int mines, long seed) {
+        this(new MinesweeperGridService(size, mines, seed));
     }
 
+    public GameController(MinesweeperGridService minesweeperGrid) {
+        this.minesweeperGrid = minesweeperGrid;
+        this.gridRenderer = new GridRenderer(minesweeperGrid.getBoard());
+    }
+
+    /**
+     * Starts a new game on the existing grid, reusing its board storage when the size is unchanged.
+     * Recording to a MoveJournal stops, since the journal describes the previous game.
+     */
+    public void newGame(int size, int mines) {
+        newGame(size, mines, new Random());
+    }
+
+    /**
+     * Starts a new game whose board is fully determined by the seed.
+     */
+    public void newGame(int size, int mines, long seed) {
+        newGame(size, mines, new SplittableRandom(seed));
+    }
+
+    private void newGame(int size, int mines, RandomGenerator random) {
+        minesweeperGrid.reset(size, mines, random);
+        moveJournal = null;
+        if (gridRenderer.getBoard() != minesweeperGrid.getBoard()) {
+            gridRenderer = new GridRenderer(minesweeperGrid.getBoard());
+        }
+    }
 
     public String selectSquare(String square) {
-        try {
-            int[] position = MinesweeperGridService.parseSquare(square);
-            int row = position[0];
-            int col = position[1];
-            
-            if (!minesweeperGrid.isValidPosition(row, col)) {
-                return "Position is invalid. Please try again.";
-            }
-            
-            if (minesweeperGrid.getCell(row, col).isRevealed()) {
-                return "This cell is already revealed. Please try again.";
-            }
-            
-            minesweeperGrid.revealCell(row, col);
-            
-            if (minesweeperGrid.isGameOver()) {
-                return "Oh no, you detonated a mine! Game over.";
-            }
-            
-            if (minesweeperGrid.isGameWon()) {
-                return "Congratulations, you have won the game!";
-            }
-            
-            return "This square contains " + minesweeperGrid.getCell(row, col).getAdjacentMines() + " adjacent mines.";
-            
-        } catch (IllegalArgumentException e) {
+        long start = GameMetrics.startTimer();
+        SelectSquareEvent event = SelectSquareEvent.start();
+
+        String result = play(square);
+
+        GameMetrics.recordSelectSquare(start);
+        if (event != null && event.shouldCommit()) {
+            event.square = square;
+            event.boardSize = minesweeperGrid.getSize();
+            event.revealed = minesweeperGrid.getLastRevealedCount();
+            event.gameOver = isGameOver();
+            event.commit();
+        }
+        return result;
+    }
+
+    private String play(String square) {
+        long position = CoordinateCodec.parse(square);
+        if (position == CoordinateCodec.INVALID) {
+            return "Square format is invalid. Please use this format (e.g., A1).";
+        }
+
+        int row = CoordinateCodec.row(position);
+        int col = CoordinateCodec.col(position);
+
+        if (!minesweeperGrid.isValidPosition(row, col)) {
+            return "Position is invalid. Please try again.";
+        }
+
+        MinesweeperBoard board = minesweeperGrid.getBoard();
+        int index = board.indexOf(row, col);
+        if (board.isRevealed(index)) {
+            return "This cell is already revealed. Please try again.";
+        }
+
+        if (board.isFlagged(index)) {
+            return "This cell is flagged. Please try again.";
+        }
+
+        minesweeperGrid.revealCell(row, col);
+        recordMove(MoveJournal.MOVE_REVEAL, row, col);
+
+        if (minesweeperGrid.isGameOver()) {
+            return "Oh no, you detonated a mine! Game over.";
+        }
+
+        if (minesweeperGrid.isGameWon()) {
+            return "Congratulations, you have won the game!";
+        }
+
+        return "This square contains " + board.getAdjacentMines(index) + " adjacent mines.";
+    }
+
+    /**
+     * Sets or removes the player's flag on a hidden square.
+     */
+    public String flagSquare(String square, boolean flagged) {
+        long position = CoordinateCodec.parse(square);
+        if (position == CoordinateCodec.INVALID) {
             return "Square format is invalid. Please use this format (e.g., A1).";
         }
+
+        int row = CoordinateCodec.row(position);
+        int col = CoordinateCodec.col(position);
+        if (!minesweeperGrid.setFlag(row, col, flagged)) {
+            return "This cell cannot be flagged. Please try again.";
+        }
+        recordMove(flagged ? MoveJournal.MOVE_FLAG : MoveJournal.MOVE_UNFLAG, row, col);
+        return flagged ? "The cell is flagged." : "The flag is removed.";
     }
 
-    public String gridView() {
-        StringBuilder sb = new StringBuilder();
-        
-        // Display column headers
-        sb.append("  ");
-        for (int col = 1; col <= minesweeperGrid.getSize(); col++) {
-            sb.append(col).append(" ");
-        }
-        sb.append("\n");
-        
-        // Display rows
-        for (int row = 0; row < minesweeperGrid.getSize(); row++) {
-            sb.append((char)('A' + row)).append(" ");
-            // Display cells in the row
-            for (int col = 0; col < minesweeperGrid.getSize(); col++) {
-                MinesweeperGridCell minesweeperGridCell = minesweeperGrid.getCell(row, col);
-                sb.append(minesweeperGridCell.getDisplayValue()).append(" ");
+    /**
+     * Reveals the hidden neighbours of a revealed number once as many flags as its number surround it.
+     */
+    public String chordSquare(String square) {
+        long position = CoordinateCodec.parse(square);
+        if (position == CoordinateCodec.INVALID) {
+            return "Square format is invalid. Please use this format (e.g., A1).";
+        }
+
+        int row = CoordinateCodec.row(position);
+        int col = CoordinateCodec.col(position);
+        if (!minesweeperGrid.chordCell(row, col)) {
+            return "This cell cannot be chorded. Please try again.";
+        }
+        recordMove(MoveJournal.MOVE_CHORD, row, col);
+
+        if (minesweeperGrid.isGameOver()) {
+            return "Oh no, you detonated a mine! Game over.";
+        }
+        if (minesweeperGrid.isGameWon()) {
+            return "Congratulations, you have won the game!";
+        }
+        return "The chord revealed " + minesweeperGrid.getLastRevealedCount() + " squares.";
+    }
+
+    /**
+     * Keeps an undo history from the next move on. Only interactive players can undo, so games start without one.
+     */
+    public void enableUndo() {
+        minesweeperGrid.enableHistory();
+    }
+
+    public boolean isUndoEnabled() {
+        return minesweeperGrid.isHistoryEnabled();
+    }
+
+    /**
+     * Takes back the last move. A MoveJournal has no undo record, so undo is refused while moves are recorded.
+     */
+    public String undo() {
+        if (moveJournal != null) {
+            return "Undo is not available while moves are recorded.";
+        }
+        if (!isUndoEnabled()) {
+            return "Undo is not enabled for this game.";
+        }
+        if (!minesweeperGrid.undo()) {
+            return "There is no move to undo.";
+        }
+        return "The last move was undone.";
+    }
+
+    public String redo() {
+        if (moveJournal != null) {
+            return "Redo is not available while moves are recorded.";
+        }
+        if (!isUndoEnabled()) {
+            return "Undo is not enabled for this game.";
+        }
+        if (!minesweeperGrid.redo()) {
+            return "There is no move to redo.";
+        }
+        return "The move was redone.";
+    }
+
+    /**
+     * Applies many moves at once without building any messages, for bots and scripted clients.
+     * Moves are board indexes, row * cols + col, and the batch stops at the move that ends the game.
+     *
+     * @param result cleared and refilled with the outcome, so it can be reused across batches
+     */
+    public void selectSquares(int[] squares, int offset, int length, MoveBatchResult result) {
+        minesweeperGrid.revealCells(squares, offset, length, result);
+
+        if (moveJournal != null) {
+            int cols = minesweeperGrid.getCols();
+            for (int i = 0; i < result.getMoveCount(); i++) {
+                int revealed = result.getRevealedEnd(i) - result.getRevealedStart(i);
+                if (revealed > 0) {
+                    int index = squares[offset + i];
+                    int status = MoveJournal.STATUS_PLAYING;
+                    if (i == result.getMoveCount() - 1 && result.getStatus() == MoveBatchResult.STATUS_LOST) {
+                        status = MoveJournal.STATUS_LOST;
+                    } else if (i == result.getMoveCount() - 1 && result.getStatus() == MoveBatchResult.STATUS_WON) {
+                        status = MoveJournal.STATUS_WON;
+                    }
+                    appendMove(MoveJournal.MOVE_REVEAL, index / cols, index % cols, revealed, status);
+                }
             }
-            sb.append("\n");
         }
-        
-        return sb.toString();
+    }
+
+    /**
+     * Appends every move that reveals squares, and every flag change, to the journal from now on.
+     * Flags must be set through flagSquare rather than on the grid, or the journal cannot be replayed.
+     * The journal should have been created with this game's size, mine count and seed.
+     */
+    public void recordMovesTo(MoveJournal moveJournal) {
+        this.moveJournal = moveJournal;
+    }
+
+    private void recordMove(int kind, int row, int col) {
+        boolean reveals = kind == MoveJournal.MOVE_REVEAL || kind == MoveJournal.MOVE_CHORD;
+        if (moveJournal == null || reveals && minesweeperGrid.getLastRevealedCount() == 0) {
+            return;
+        }
+
+        int status = MoveJournal.STATUS_PLAYING;
+        if (minesweeperGrid.isGameOver()) {
+            status = MoveJournal.STATUS_LOST;
+        } else if (minesweeperGrid.isGameWon()) {
+            status = MoveJournal.STATUS_WON;
+        }
+
+        appendMove(kind, row, col, minesweeperGrid.getLastRevealedCount(), status);
+    }
+
+    private void appendMove(int kind, int row, int col, int revealed, int status) {
+        try {
+            moveJournal.append(kind, row, col, revealed, status);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public String gridView() {
+        long start = GameMetrics.startTimer();
+        RenderEvent event = RenderEvent.start();
+        String frame = gridRenderer.renderFrame();
+        endRender(start, event, true);
+        return frame;
+    }
+
+    /**
+     * Writes the full grid without building an intermediate String.
+     */
+    public void writeGridView(Writer writer) {
+        long start = GameMetrics.startTimer();
+        RenderEvent event = RenderEvent.start();
+        gridRenderer.writeFrame(writer);
+        endRender(start, event, true);
+    }
+
+    /**
+     * Writes only the rows that changed since the grid was last rendered.
+     */
+    public void writeGridChanges(Writer writer) {
+        long start = GameMetrics.startTimer();
+        RenderEvent event = RenderEvent.start();
+        gridRenderer.writeChangedRows(writer);
+        endRender(start, event, false);
+    }
+
+    private void endRender(long start, RenderEvent event, boolean fullFrame) {
+        GameMetrics.recordRender(start);
+        if (event != null && event.shouldCommit()) {
+            event.boardSize = minesweeperGrid.getSize();
+            event.fullFrame = fullFrame;
+            event.commit();
+        }
     }
 
     public boolean isGameOver() {
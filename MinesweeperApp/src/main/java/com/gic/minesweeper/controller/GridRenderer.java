@@ -0,0 +1,164 @@
+package com.gic.minesweeper.controller;
+
+import com.gic.minesweeper.model.MinesweeperBoard;
+import com.gic.minesweeper.service.CoordinateCodec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * This renders a board into a pre-sized character frame.
+ * Row labels are padded to the width of the longest label so the columns stay aligned.
+ * Only the rows the board marked dirty since the last render are redrawn, and callers can emit
+ * the full frame, just the changed rows, or just the changed squares.
+ */
+public class GridRenderer {
+
+    private static final char HIDDEN = '_';
+    private static final char FLAGGED = 'F';
+
+    private final MinesweeperBoard board;
+    private final char[] frame;
+    private final int[] rowOffsets;
+    private final int rowLength;
+    private final int labelLength;
+    private final char[] scratch = new char[32];
+
+    public GridRenderer(MinesweeperBoard board) {
+        this.board = board;
+        int rows = board.getRows();
+        int cols = board.getCols();
+
+        this.labelLength = CoordinateCodec.rowLabelLength(rows - 1);
+        StringBuilder header = new StringBuilder();
+        for (int i = 0; i <= labelLength; i++) {
+            header.append(' ');
+        }
+        for (int col = 1; col <= cols; col++) {
+            header.append(col).append(' ');
+        }
+        header.append('\n');
+
+        this.rowLength = labelLength + 1 + cols * 2 + 1;
+        this.frame = new char[header.length() + rows * rowLength];
+        this.rowOffsets = new int[rows];
+        header.getChars(0, header.length(), frame, 0);
+
+        for (int row = 0; row < rows; row++) {
+            int offset = header.length() + row * rowLength;
+            rowOffsets[row] = offset;
+            int labelEnd = CoordinateCodec.writeRowLabel(row, frame, offset);
+            for (int i = labelEnd; i < offset + labelLength; i++) {
+                frame[i] = ' ';
+            }
+            for (int i = offset + labelLength; i < offset + rowLength - 1; i += 2) {
+                frame[i] = ' ';
+                frame[i + 1] = HIDDEN;
+            }
+            frame[offset + rowLength - 1] = '\n';
+            drawRow(row);
+        }
+        board.clearDirtyRows();
+    }
+
+    public MinesweeperBoard getBoard() {
+        return board;
+    }
+
+    public String renderFrame() {
+        drawDirtyRows();
+        return new String(frame);
+    }
+
+    public void writeFrame(Writer writer) {
+        drawDirtyRows();
+        write(writer, frame, 0, frame.length);
+    }
+
+    /**
+     * Writes the full line of every row that changed since the last render.
+     */
+    public void writeChangedRows(Writer writer) {
+        for (int row = board.nextDirtyRow(0); row >= 0; row = board.nextDirtyRow(row + 1)) {
+            drawRow(row);
+            write(writer, frame, rowOffsets[row], rowLength);
+        }
+        board.clearDirtyRows();
+    }
+
+    /**
+     * Writes one "<square> <value>" line for every square whose display value changed since the last render.
+     */
+    public void writeChangedSquares(Writer writer) {
+        int cols = board.getCols();
+        for (int row = board.nextDirtyRow(0); row >= 0; row = board.nextDirtyRow(row + 1)) {
+            for (int col = 0; col < cols; col++) {
+                int position = squarePosition(row, col);
+                char value = displayChar(board.indexOf(row, col));
+                if (frame[position] != value) {
+                    frame[position] = value;
+                    writeSquare(writer, row, col, value);
+                }
+            }
+        }
+        board.clearDirtyRows();
+    }
+
+    private void drawDirtyRows() {
+        for (int row = board.nextDirtyRow(0); row >= 0; row = board.nextDirtyRow(row + 1)) {
+            drawRow(row);
+        }
+        board.clearDirtyRows();
+    }
+
+    private void drawRow(int row) {
+        int cols = board.getCols();
+        int index = board.indexOf(row, 0);
+        int position = squarePosition(row, 0);
+        for (int col = 0; col < cols; col++) {
+            frame[position] = displayChar(index + col);
+            position += 2;
+        }
+    }
+
+    private int squarePosition(int row, int col) {
+        return rowOffsets[row] + labelLength + 1 + col * 2;
+    }
+
+    private char displayChar(int index) {
+        if (!board.isRevealed(index)) {
+            return board.isFlagged(index) ? FLAGGED : HIDDEN;
+        }
+        return (char) ('0' + board.getAdjacentMines(index));
+    }
+
+    private void writeSquare(Writer writer, int row, int col, char value) {
+        int length = CoordinateCodec.writeRowLabel(row, scratch, 0);
+        length = appendNumber(col + 1, length);
+        scratch[length++] = ' ';
+        scratch[length++] = value;
+        scratch[length++] = '\n';
+        write(writer, scratch, 0, length);
+    }
+
+    private int appendNumber(int number, int length) {
+        int digits = 1;
+        for (int n = number; n >= 10; n /= 10) {
+            digits++;
+        }
+        for (int i = length + digits - 1; i >= length; i--) {
+            scratch[i] = (char) ('0' + number % 10);
+            number /= 10;
+        }
+        return length + digits;
+    }
+
+    private static void write(Writer writer, char[] chars, int offset, int length) {
+        try {
+            writer.write(chars, offset, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
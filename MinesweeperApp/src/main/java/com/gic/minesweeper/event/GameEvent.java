@@ -0,0 +1,19 @@
+package com.gic.minesweeper.event;
+
+/**
+ * This is something that happened in a game, as seen by a spectator.
+ * Events are immutable, so one instance is shared by every subscriber. The sequence numbers the events of
+ * a publisher in the order they happened, so a subscriber can tell how many it missed.
+ */
+public abstract class GameEvent {
+
+    private final long sequence;
+
+    GameEvent(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+}
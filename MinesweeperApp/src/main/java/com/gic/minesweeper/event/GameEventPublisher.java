@@ -0,0 +1,356 @@
+package com.gic.minesweeper.event;
+
+import com.gic.minesweeper.model.MinesweeperBoard;
+import com.gic.minesweeper.wire.BoardStateEncoder;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This publishes the events of one game to any number of Flow subscribers.
+ * MinesweeperGridService calls it on the player's thread after every move. Each event is built once and offered to
+ * every subscriber's bounded buffer, and the subscribers are fed from the executor at the pace of their own demand.
+ * When a buffer is full, the subscriber's BackpressurePolicy decides:
+ * <pre>
+ * DROP      the new event is discarded and counted in getDroppedEventCount()
+ * COALESCE  the buffered events are discarded and replaced with one SnapshotEvent of the current grid
+ * BLOCK     the player's move waits for buffer space, so the subscriber sees every event
+ * </pre>
+ * Only BLOCK subscribers can slow the player down. Publishing with no subscribers costs one volatile read.
+ * The publish methods must be called from one thread at a time, which the grid being not thread safe already implies.
+ */
+public class GameEventPublisher implements Flow.Publisher<GameEvent>, AutoCloseable {
+
+    public enum BackpressurePolicy {
+        DROP, COALESCE, BLOCK
+    }
+
+    private final Executor executor;
+    private final int bufferCapacity;
+    private final BackpressurePolicy defaultPolicy;
+    private final List<EventSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final LongAdder droppedEvents = new LongAdder();
+    private volatile boolean closed;
+    private long sequence;
+    private MinesweeperBoard snapshotBoard;
+    private boolean snapshotGameOver;
+    private boolean snapshotGameWon;
+    private SnapshotEvent snapshot;
+
+    public GameEventPublisher() {
+        this(ForkJoinPool.commonPool(), Flow.defaultBufferSize(), BackpressurePolicy.COALESCE);
+    }
+
+    public GameEventPublisher(Executor executor, int bufferCapacity, BackpressurePolicy defaultPolicy) {
+        if (bufferCapacity < 1) {
+            throw new IllegalArgumentException("Buffer capacity should be at least 1");
+        }
+        this.executor = executor;
+        this.bufferCapacity = bufferCapacity;
+        this.defaultPolicy = defaultPolicy;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super GameEvent> subscriber) {
+        subscribe(subscriber, defaultPolicy, bufferCapacity);
+    }
+
+    public void subscribe(Flow.Subscriber<? super GameEvent> subscriber, BackpressurePolicy policy, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Buffer capacity should be at least 1");
+        }
+        EventSubscription subscription = new EventSubscription(subscriber, policy, capacity);
+        subscriptions.add(subscription);
+        subscriber.onSubscribe(subscription);
+        if (closed) {
+            subscription.complete();
+        }
+    }
+
+    public boolean hasSubscribers() {
+        return !subscriptions.isEmpty();
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * @return the number of events DROP subscribers did not receive because their buffer was full
+     */
+    public long getDroppedEventCount() {
+        return droppedEvents.sum();
+    }
+
+    /**
+     * Publishes a RevealEvent for the squares a move revealed, followed by a GameWonEvent or GameLostEvent
+     * if the move ended the game.
+     */
+    public void publishMove(MinesweeperBoard board, int[] revealedSquares, int revealedCount,
+                            boolean gameOver, boolean gameWon) {
+        if (subscriptions.isEmpty() || revealedCount == 0) {
+            return;
+        }
+
+        int[] squares = new int[revealedCount];
+        byte[] values = new byte[revealedCount];
+        int detonated = -1;
+        for (int i = 0; i < revealedCount; i++) {
+            squares[i] = revealedSquares[i];
+            values[i] = (byte) BoardStateEncoder.visibleValue(board, squares[i]);
+            if (board.isMine(squares[i])) {
+                detonated = squares[i];
+            }
+        }
+
+        beginMove(board, gameOver, gameWon);
+        try {
+            offer(new RevealEvent(++sequence, squares, values));
+            if (gameOver) {
+                offer(new GameLostEvent(++sequence, detonated));
+            } else if (gameWon) {
+                offer(new GameWonEvent(++sequence));
+            }
+        } finally {
+            endMove();
+        }
+    }
+
+    /**
+     * Publishes a SnapshotEvent of the whole grid, for changes that are not reveals such as an undo or a new game.
+     */
+    public void publishSnapshot(MinesweeperBoard board, boolean gameOver, boolean gameWon) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+
+        beginMove(board, gameOver, gameWon);
+        try {
+            ++sequence;
+            offer(snapshot());
+        } finally {
+            endMove();
+        }
+    }
+
+    private void beginMove(MinesweeperBoard board, boolean gameOver, boolean gameWon) {
+        snapshotBoard = board;
+        snapshotGameOver = gameOver;
+        snapshotGameWon = gameWon;
+    }
+
+    private void endMove() {
+        snapshotBoard = null;
+        snapshot = null;
+    }
+
+    /**
+     * @return the grid after the current move, built at most once per move however many subscribers coalesce
+     */
+    private SnapshotEvent snapshot() {
+        if (snapshot == null) {
+            MinesweeperBoard board = snapshotBoard;
+            byte[] squares = new byte[board.getSquareCount()];
+            for (int index = 0; index < squares.length; index++) {
+                squares[index] = (byte) BoardStateEncoder.visibleValue(board, index);
+            }
+            snapshot = new SnapshotEvent(sequence, board.getRows(), board.getCols(), snapshotGameOver,
+                    snapshotGameWon, squares);
+        }
+        return snapshot;
+    }
+
+    private void offer(GameEvent event) {
+        for (EventSubscription subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    /**
+     * Completes every subscription once its buffered events are delivered. Later subscribers are completed at once.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (EventSubscription subscription : subscriptions) {
+            subscription.complete();
+        }
+    }
+
+    /**
+     * This is one subscriber's bounded buffer and demand.
+     * Delivery runs on the executor, one drain task at a time: every signal increments the work counter, and only
+     * the signal that raises it from zero schedules a task, which keeps draining until the counter settles at zero.
+     */
+    private class EventSubscription implements Flow.Subscription, Runnable {
+
+        private final Flow.Subscriber<? super GameEvent> subscriber;
+        private final BackpressurePolicy policy;
+        private final GameEvent[] buffer;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition notFull = lock.newCondition();
+        private final AtomicInteger work = new AtomicInteger();
+        private int head;
+        private int count;
+        private long demand;
+        private boolean cancelled;
+        private boolean completed;
+        private Throwable error;
+
+        EventSubscription(Flow.Subscriber<? super GameEvent> subscriber, BackpressurePolicy policy, int capacity) {
+            this.subscriber = subscriber;
+            this.policy = policy;
+            this.buffer = new GameEvent[capacity];
+        }
+
+        void offer(GameEvent event) {
+            lock.lock();
+            try {
+                while (count == buffer.length && !cancelled && !completed) {
+                    if (policy == BackpressurePolicy.DROP) {
+                        droppedEvents.increment();
+                        return;
+                    }
+                    if (policy == BackpressurePolicy.COALESCE) {
+                        clear();
+                        event = snapshot();
+                        break;
+                    }
+                    try {
+                        notFull.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        droppedEvents.increment();
+                        return;
+                    }
+                }
+                if (cancelled || completed) {
+                    return;
+                }
+                buffer[(head + count++) % buffer.length] = event;
+            } finally {
+                lock.unlock();
+            }
+            signal();
+        }
+
+        void complete() {
+            lock.lock();
+            try {
+                completed = true;
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            signal();
+        }
+
+        @Override
+        public void request(long n) {
+            lock.lock();
+            try {
+                if (n <= 0) {
+                    error = new IllegalArgumentException("Requested events should be positive: " + n);
+                    clear();
+                } else {
+                    demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                }
+            } finally {
+                lock.unlock();
+            }
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            lock.lock();
+            try {
+                cancelled = true;
+                clear();
+            } finally {
+                lock.unlock();
+            }
+            subscriptions.remove(this);
+        }
+
+        private void clear() {
+            for (int i = 0; i < count; i++) {
+                buffer[(head + i) % buffer.length] = null;
+            }
+            head = 0;
+            count = 0;
+            notFull.signalAll();
+        }
+
+        private void signal() {
+            if (work.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                drain();
+                missed = work.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drain() {
+            while (true) {
+                GameEvent event = null;
+                Throwable failure = null;
+                boolean done = false;
+                lock.lock();
+                try {
+                    if (cancelled) {
+                        return;
+                    }
+                    if (error != null) {
+                        failure = error;
+                        cancelled = true;
+                    } else if (count > 0 && demand > 0) {
+                        event = buffer[head];
+                        buffer[head] = null;
+                        head = (head + 1) % buffer.length;
+                        count--;
+                        demand--;
+                        notFull.signal();
+                    } else if (count == 0 && completed) {
+                        done = true;
+                        cancelled = true;
+                    } else {
+                        return;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+
+                if (failure != null) {
+                    subscriptions.remove(this);
+                    subscriber.onError(failure);
+                    return;
+                }
+                if (done) {
+                    subscriptions.remove(this);
+                    subscriber.onComplete();
+                    return;
+                }
+                try {
+                    subscriber.onNext(event);
+                } catch (RuntimeException e) {
+                    cancel();
+                    return;
+                }
+            }
+        }
+    }
+}
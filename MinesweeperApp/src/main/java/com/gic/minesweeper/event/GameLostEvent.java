@@ -0,0 +1,26 @@
+package com.gic.minesweeper.event;
+
+/**
+ * This is published after the RevealEvent of the move that detonated a mine.
+ */
+public final class GameLostEvent extends GameEvent {
+
+    private final int square;
+
+    GameLostEvent(long sequence, int square) {
+        super(sequence);
+        this.square = square;
+    }
+
+    /**
+     * @return the board index of the detonated mine
+     */
+    public int getSquare() {
+        return square;
+    }
+
+    @Override
+    public String toString() {
+        return "GameLostEvent " + getSequence() + " " + square;
+    }
+}
@@ -0,0 +1,16 @@
+package com.gic.minesweeper.event;
+
+/**
+ * This is published after the RevealEvent of the move that revealed the last safe square.
+ */
+public final class GameWonEvent extends GameEvent {
+
+    GameWonEvent(long sequence) {
+        super(sequence);
+    }
+
+    @Override
+    public String toString() {
+        return "GameWonEvent " + getSequence();
+    }
+}
@@ -0,0 +1,39 @@
+package com.gic.minesweeper.event;
+
+import java.util.Arrays;
+
+/**
+ * This is published for every move that revealed squares, with the value each revealed square shows.
+ * Values are those of BoardStateEncoder: 0-8 for a number, or BoardStateEncoder.MINE for a detonated mine.
+ */
+public final class RevealEvent extends GameEvent {
+
+    private final int[] squares;
+    private final byte[] values;
+
+    RevealEvent(long sequence, int[] squares, byte[] values) {
+        super(sequence);
+        this.squares = squares;
+        this.values = values;
+    }
+
+    public int getRevealedCount() {
+        return squares.length;
+    }
+
+    /**
+     * @return the board index, row * cols + col, of the i-th revealed square
+     */
+    public int getRevealedSquare(int i) {
+        return squares[i];
+    }
+
+    public int getValue(int i) {
+        return values[i];
+    }
+
+    @Override
+    public String toString() {
+        return "RevealEvent " + getSequence() + " " + Arrays.toString(squares);
+    }
+}
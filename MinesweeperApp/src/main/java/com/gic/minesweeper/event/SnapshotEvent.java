@@ -0,0 +1,52 @@
+package com.gic.minesweeper.event;
+
+/**
+ * This is the whole visible grid at one point of the game. It replaces the events a subscriber with the COALESCE
+ * policy could not keep up with, and it is published to everyone after a change that is not a reveal, such as
+ * an undo or a new game. Values are those of BoardStateEncoder.
+ */
+public final class SnapshotEvent extends GameEvent {
+
+    private final int rows;
+    private final int cols;
+    private final boolean gameOver;
+    private final boolean gameWon;
+    private final byte[] squares;
+
+    SnapshotEvent(long sequence, int rows, int cols, boolean gameOver, boolean gameWon, byte[] squares) {
+        super(sequence);
+        this.rows = rows;
+        this.cols = cols;
+        this.gameOver = gameOver;
+        this.gameWon = gameWon;
+        this.squares = squares;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public boolean isGameWon() {
+        return gameWon;
+    }
+
+    public int getSquare(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            throw new IllegalArgumentException("Cell position is invalid: " + row + "," + col);
+        }
+        return squares[row * cols + col];
+    }
+
+    @Override
+    public String toString() {
+        return "SnapshotEvent " + getSequence() + " " + rows + "x" + cols;
+    }
+}
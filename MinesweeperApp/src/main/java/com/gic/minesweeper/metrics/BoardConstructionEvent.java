@@ -0,0 +1,36 @@
+package com.gic.minesweeper.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This is the JFR event emitted when a board is generated.
+ */
+@Name("com.gic.minesweeper.BoardConstruction")
+@Label("Board Construction")
+@Category("Minesweeper")
+public class BoardConstructionEvent extends Event {
+
+    private static final EventType TYPE = EventType.getEventType(BoardConstructionEvent.class);
+
+    @Label("Board Size")
+    public int boardSize;
+
+    @Label("Mines")
+    public int mines;
+
+    /**
+     * @return a started event, or null without allocating when no recording enables it
+     */
+    public static BoardConstructionEvent start() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        BoardConstructionEvent event = new BoardConstructionEvent();
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,186 @@
+package com.gic.minesweeper.metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * This collects move latency, cascade size, board construction and render metrics for the whole JVM.
+ * Collection is off by default; while it is off every hook is a single static field read.
+ * The metrics are published over JMX under {@link #OBJECT_NAME} once {@link #register()} is called.
+ */
+public class GameMetrics {
+
+    public static final String OBJECT_NAME = "com.gic.minesweeper:type=GameMetrics";
+
+    private static volatile boolean enabled;
+
+    private static final Histogram selectSquareNanos = new Histogram();
+    private static final Histogram cascadeSizes = new Histogram();
+    private static final Histogram boardConstructionNanos = new Histogram();
+    private static final Histogram renderNanos = new Histogram();
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        GameMetrics.enabled = enabled;
+    }
+
+    /**
+     * @return the start time to pass to a record method, or 0 when collection is off
+     */
+    public static long startTimer() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    public static void recordSelectSquare(long start) {
+        if (start != 0) {
+            selectSquareNanos.record(System.nanoTime() - start);
+        }
+    }
+
+    public static void recordCascade(int revealed) {
+        if (enabled) {
+            cascadeSizes.record(revealed);
+        }
+    }
+
+    public static void recordBoardConstruction(long start) {
+        if (start != 0) {
+            boardConstructionNanos.record(System.nanoTime() - start);
+        }
+    }
+
+    public static void recordRender(long start) {
+        if (start != 0) {
+            renderNanos.record(System.nanoTime() - start);
+        }
+    }
+
+    public static Histogram getSelectSquareNanos() {
+        return selectSquareNanos;
+    }
+
+    public static Histogram getCascadeSizes() {
+        return cascadeSizes;
+    }
+
+    public static Histogram getBoardConstructionNanos() {
+        return boardConstructionNanos;
+    }
+
+    public static Histogram getRenderNanos() {
+        return renderNanos;
+    }
+
+    public static void reset() {
+        selectSquareNanos.reset();
+        cascadeSizes.reset();
+        boardConstructionNanos.reset();
+        renderNanos.reset();
+    }
+
+    /**
+     * Registers the metrics MXBean with the platform MBean server. Registering twice has no effect.
+     */
+    public static void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(), new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // Already registered
+        } catch (JMException e) {
+            throw new IllegalStateException("Game metrics could not be registered", e);
+        }
+    }
+
+    private static class Bean implements GameMetricsMXBean {
+
+        @Override
+        public boolean isEnabled() {
+            return GameMetrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean enabled) {
+            GameMetrics.setEnabled(enabled);
+        }
+
+        @Override
+        public long getSelectSquareCount() {
+            return selectSquareNanos.getCount();
+        }
+
+        @Override
+        public double getSelectSquareMeanNanos() {
+            return selectSquareNanos.getMean();
+        }
+
+        @Override
+        public long getSelectSquareP50Nanos() {
+            return selectSquareNanos.getPercentile(50);
+        }
+
+        @Override
+        public long getSelectSquareP99Nanos() {
+            return selectSquareNanos.getPercentile(99);
+        }
+
+        @Override
+        public long getRevealCount() {
+            return cascadeSizes.getCount();
+        }
+
+        @Override
+        public double getCascadeMeanSize() {
+            return cascadeSizes.getMean();
+        }
+
+        @Override
+        public long getCascadeP50Size() {
+            return cascadeSizes.getPercentile(50);
+        }
+
+        @Override
+        public long getCascadeP99Size() {
+            return cascadeSizes.getPercentile(99);
+        }
+
+        @Override
+        public long getBoardConstructionCount() {
+            return boardConstructionNanos.getCount();
+        }
+
+        @Override
+        public double getBoardConstructionMeanNanos() {
+            return boardConstructionNanos.getMean();
+        }
+
+        @Override
+        public long getBoardConstructionP99Nanos() {
+            return boardConstructionNanos.getPercentile(99);
+        }
+
+        @Override
+        public long getRenderCount() {
+            return renderNanos.getCount();
+        }
+
+        @Override
+        public double getRenderMeanNanos() {
+            return renderNanos.getMean();
+        }
+
+        @Override
+        public long getRenderP99Nanos() {
+            return renderNanos.getPercentile(99);
+        }
+
+        @Override
+        public void reset() {
+            GameMetrics.reset();
+        }
+    }
+}
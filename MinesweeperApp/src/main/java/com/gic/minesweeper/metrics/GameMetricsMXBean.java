@@ -0,0 +1,41 @@
+package com.gic.minesweeper.metrics;
+
+/**
+ * This is the JMX view of GameMetrics. Times are in nanoseconds and percentiles are bucket upper bounds.
+ */
+public interface GameMetricsMXBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    long getSelectSquareCount();
+
+    double getSelectSquareMeanNanos();
+
+    long getSelectSquareP50Nanos();
+
+    long getSelectSquareP99Nanos();
+
+    long getRevealCount();
+
+    double getCascadeMeanSize();
+
+    long getCascadeP50Size();
+
+    long getCascadeP99Size();
+
+    long getBoardConstructionCount();
+
+    double getBoardConstructionMeanNanos();
+
+    long getBoardConstructionP99Nanos();
+
+    long getRenderCount();
+
+    double getRenderMeanNanos();
+
+    long getRenderP99Nanos();
+
+    void reset();
+}
@@ -0,0 +1,36 @@
+package com.gic.minesweeper.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This is the JFR event emitted when GameController renders the grid.
+ */
+@Name("com.gic.minesweeper.Render")
+@Label("Render Grid")
+@Category("Minesweeper")
+public class RenderEvent extends Event {
+
+    private static final EventType TYPE = EventType.getEventType(RenderEvent.class);
+
+    @Label("Board Size")
+    public int boardSize;
+
+    @Label("Full Frame")
+    public boolean fullFrame;
+
+    /**
+     * @return a started event, or null without allocating when no recording enables it
+     */
+    public static RenderEvent start() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        RenderEvent event = new RenderEvent();
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,42 @@
+package com.gic.minesweeper.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This is the JFR event emitted for every move made through GameController.selectSquare.
+ */
+@Name("com.gic.minesweeper.SelectSquare")
+@Label("Select Square")
+@Category("Minesweeper")
+public class SelectSquareEvent extends Event {
+
+    private static final EventType TYPE = EventType.getEventType(SelectSquareEvent.class);
+
+    @Label("Square")
+    public String square;
+
+    @Label("Board Size")
+    public int boardSize;
+
+    @Label("Squares Revealed")
+    public int revealed;
+
+    @Label("Game Over")
+    public boolean gameOver;
+
+    /**
+     * @return a started event, or null without allocating when no recording enables it
+     */
+    public static SelectSquareEvent start() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        SelectSquareEvent event = new SelectSquareEvent();
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,80 @@
+package com.gic.minesweeper.model;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This is a small pool of released boards keyed by their topology, so repeated games reuse square storage
+ * instead of allocating it again.
+ * A pool belongs to one owner, such as a simulation worker or a server worker, and only that owner releases boards
+ * into it, once it knows nothing else still references them.
+ * At most maxBoardsPerSize boards of each topology and maxPooledSquares squares in total are kept; boards released beyond
+ * that, and boards over direct or memory-mapped storage, are left to the garbage collector.
+ * The pool is safe to share between threads.
+ */
+public class BoardPool {
+
+    private final int maxBoardsPerSize;
+    private final long maxPooledSquares;
+    private final Map<BoardTopology, ArrayDeque<MinesweeperBoard>> boards = new HashMap<>();
+    private long pooledSquares;
+
+    public BoardPool(int maxBoardsPerSize, long maxPooledSquares) {
+        if (maxBoardsPerSize < 1) {
+            throw new IllegalArgumentException("At least one board per size should be pooled");
+        }
+        this.maxBoardsPerSize = maxBoardsPerSize;
+        this.maxPooledSquares = maxPooledSquares;
+    }
+
+    public MinesweeperBoard acquire(int size) {
+        return acquire(BoardTopology.rectangular(size, size));
+    }
+
+    /**
+     * @return a cleared board with the given topology, reused from the pool when one is available
+     */
+    public MinesweeperBoard acquire(BoardTopology topology) {
+        MinesweeperBoard board = poll(topology);
+        if (board == null) {
+            return new MinesweeperBoard(topology);
+        }
+        board.clear();
+        return board;
+    }
+
+    private synchronized MinesweeperBoard poll(BoardTopology topology) {
+        ArrayDeque<MinesweeperBoard> pooled = boards.get(topology);
+        if (pooled == null || pooled.isEmpty()) {
+            return null;
+        }
+        MinesweeperBoard board = pooled.pop();
+        pooledSquares -= board.getSquareCount();
+        return board;
+    }
+
+    /**
+     * Returns a board to the pool. The caller must not use the board afterwards.
+     */
+    public synchronized void release(MinesweeperBoard board) {
+        if (board.getSquares().isDirect() || pooledSquares + board.getSquareCount() > maxPooledSquares) {
+            return;
+        }
+
+        ArrayDeque<MinesweeperBoard> pooled = boards.computeIfAbsent(board.getTopology(), topology -> new ArrayDeque<>());
+        if (pooled.size() < maxBoardsPerSize && !pooled.contains(board)) {
+            pooled.push(board);
+            pooledSquares += board.getSquareCount();
+        }
+    }
+
+    public int getPooledBoardCount(int size) {
+        return getPooledBoardCount(BoardTopology.rectangular(size, size));
+    }
+
+    public synchronized int getPooledBoardCount(BoardTopology topology) {
+        ArrayDeque<MinesweeperBoard> pooled = boards.get(topology);
+        return pooled == null ? 0 : pooled.size();
+    }
+}
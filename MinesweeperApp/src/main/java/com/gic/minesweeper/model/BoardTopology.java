@@ -0,0 +1,239 @@
+package com.gic.minesweeper.model;
+
+import java.util.Arrays;
+
+/**
+ * This defines the shape of a board and which squares neighbour each other.
+ * Squares are laid out row by row in rows x cols, and the neighbours of a square are looked up in precomputed tables:
+ * an interior square adds a fixed list of index offsets to its own index, and each square on the outer ring has
+ * its own neighbour list, built once with the clipping or wrapping of its shape. A bitset marks the outer ring, so
+ * looking up an interior square by index needs no division unless its shape offsets alternate rows.
+ * Rectangular boards give each square its 8 surrounding squares. Toroidal boards wrap around the edges, so every
+ * square has 8 neighbours. Hexagonal boards use offset rows, where odd rows are shifted half a square to the right
+ * and every square touches 6 others.
+ */
+public final class BoardTopology {
+
+    public enum Shape {
+        RECTANGULAR, TOROIDAL, HEXAGONAL
+    }
+
+    private static final int[][] SQUARE_DELTAS = {
+            {-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}
+    };
+    private static final int[][] EVEN_ROW_HEX_DELTAS = {{-1, -1}, {-1, 0}, {0, -1}, {0, 1}, {1, -1}, {1, 0}};
+    private static final int[][] ODD_ROW_HEX_DELTAS = {{-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, 0}, {1, 1}};
+
+    private final Shape shape;
+    private final int rows;
+    private final int cols;
+    private final int maxNeighbours;
+    private final int[] evenRowOffsets;
+    private final int[] oddRowOffsets;
+    private final long[] borderBits;
+    private final int[] borderStarts;
+    private final int[] borderNeighbours;
+
+    private BoardTopology(Shape shape, int rows, int cols, int[][] evenRowDeltas, int[][] oddRowDeltas) {
+        if (rows < 1 || cols < 1) {
+            throw new IllegalArgumentException("Board size should be at least 1");
+        }
+        if ((long) rows * cols > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Board size is too large: " + rows + "x" + cols);
+        }
+
+        this.shape = shape;
+        this.rows = rows;
+        this.cols = cols;
+        this.maxNeighbours = evenRowDeltas.length;
+        this.evenRowOffsets = offsets(evenRowDeltas, cols);
+        this.oddRowOffsets = evenRowDeltas == oddRowDeltas ? evenRowOffsets : offsets(oddRowDeltas, cols);
+        this.borderBits = new long[(int) (((long) rows * cols + 63) >>> 6)];
+
+        int borderSquares = rows <= 2 || cols <= 2 ? rows * cols : 2 * (rows + cols) - 4;
+        this.borderStarts = new int[borderSquares + 1];
+        int[] neighbours = new int[borderSquares * maxNeighbours];
+        int count = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                if (isInterior(row, col)) {
+                    continue;
+                }
+                int index = row * cols + col;
+                borderBits[index >>> 6] |= 1L << index;
+                int slot = borderSlot(row, col);
+                borderStarts[slot] = count;
+                count = borderNeighbours(row, col, (row & 1) == 0 ? evenRowDeltas : oddRowDeltas, neighbours, count);
+                borderStarts[slot + 1] = count;
+            }
+        }
+        this.borderNeighbours = Arrays.copyOf(neighbours, count);
+    }
+
+    /**
+     * @return a bounded board where each square neighbours the up to 8 squares around it
+     */
+    public static BoardTopology rectangular(int rows, int cols) {
+        return new BoardTopology(Shape.RECTANGULAR, rows, cols, SQUARE_DELTAS, SQUARE_DELTAS);
+    }
+
+    /**
+     * @return a board whose edges wrap around, so the first and last rows and columns are adjacent
+     */
+    public static BoardTopology toroidal(int rows, int cols) {
+        return new BoardTopology(Shape.TOROIDAL, rows, cols, SQUARE_DELTAS, SQUARE_DELTAS);
+    }
+
+    /**
+     * @return a bounded board of hexagons in offset rows, where odd rows are shifted half a square to the right
+     */
+    public static BoardTopology hexagonal(int rows, int cols) {
+        return new BoardTopology(Shape.HEXAGONAL, rows, cols, EVEN_ROW_HEX_DELTAS, ODD_ROW_HEX_DELTAS);
+    }
+
+    public Shape getShape() {
+        return shape;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getSquareCount() {
+        return rows * cols;
+    }
+
+    /**
+     * @return the largest number of neighbours any square has, which is the length destination arrays need
+     */
+    public int getMaxNeighbours() {
+        return maxNeighbours;
+    }
+
+    /**
+     * @return true for the classic bounded board with as many rows as columns
+     */
+    public boolean isSquareRectangular() {
+        return shape == Shape.RECTANGULAR && rows == cols;
+    }
+
+    /**
+     * Writes the board indexes of the neighbours of a square into the destination.
+     *
+     * @return the number of neighbours written
+     */
+    public int neighbours(int index, int[] destination) {
+        if ((borderBits[index >>> 6] & 1L << index) == 0) {
+            int[] offsets = oddRowOffsets == evenRowOffsets || (index / cols & 1) == 0 ? evenRowOffsets : oddRowOffsets;
+            return interiorNeighbours(index, offsets, destination);
+        }
+
+        int row = index / cols;
+        return copyBorderNeighbours(row, index - row * cols, destination);
+    }
+
+    /**
+     * Writes the neighbours of the square at row and col, for callers that already walk the board by row.
+     *
+     * @return the number of neighbours written
+     */
+    public int neighbours(int row, int col, int[] destination) {
+        if (isInterior(row, col)) {
+            return interiorNeighbours(row * cols + col, (row & 1) == 0 ? evenRowOffsets : oddRowOffsets, destination);
+        }
+        return copyBorderNeighbours(row, col, destination);
+    }
+
+    private static int interiorNeighbours(int index, int[] offsets, int[] destination) {
+        for (int i = 0; i < offsets.length; i++) {
+            destination[i] = index + offsets[i];
+        }
+        return offsets.length;
+    }
+
+    private int copyBorderNeighbours(int row, int col, int[] destination) {
+        int slot = borderSlot(row, col);
+        int start = borderStarts[slot];
+        int count = borderStarts[slot + 1] - start;
+        System.arraycopy(borderNeighbours, start, destination, 0, count);
+        return count;
+    }
+
+    private boolean isInterior(int row, int col) {
+        return row > 0 && row < rows - 1 && col > 0 && col < cols - 1;
+    }
+
+    /**
+     * Numbers the squares of the outer ring in row order: the first row, the first and last columns of the rows
+     * between, then the last row. Boards with at most two rows or columns have no interior, so every square gets
+     * its own slot.
+     */
+    private int borderSlot(int row, int col) {
+        if (rows <= 2 || cols <= 2) {
+            return row * cols + col;
+        }
+        if (row == 0) {
+            return col;
+        }
+        if (row == rows - 1) {
+            return cols + (rows - 2) * 2 + col;
+        }
+        return cols + (row - 1) * 2 + (col == 0 ? 0 : 1);
+    }
+
+    private int borderNeighbours(int row, int col, int[][] deltas, int[] destination, int count) {
+        int start = count;
+        int index = row * cols + col;
+        for (int[] delta : deltas) {
+            int r = row + delta[0];
+            int c = col + delta[1];
+            if (shape == Shape.TOROIDAL) {
+                r = Math.floorMod(r, rows);
+                c = Math.floorMod(c, cols);
+            } else if (r < 0 || r >= rows || c < 0 || c >= cols) {
+                continue;
+            }
+
+            int neighbour = r * cols + c;
+            boolean duplicate = neighbour == index;
+            for (int i = start; i < count && !duplicate; i++) {
+                duplicate = destination[i] == neighbour;
+            }
+            if (!duplicate) {
+                destination[count++] = neighbour;
+            }
+        }
+        return count;
+    }
+
+    private static int[] offsets(int[][] deltas, int cols) {
+        int[] offsets = new int[deltas.length];
+        for (int i = 0; i < deltas.length; i++) {
+            offsets[i] = deltas[i][0] * cols + deltas[i][1];
+        }
+        return offsets;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof BoardTopology)) {
+            return false;
+        }
+        BoardTopology topology = (BoardTopology) other;
+        return shape == topology.shape && rows == topology.rows && cols == topology.cols;
+    }
+
+    @Override
+    public int hashCode() {
+        return (shape.hashCode() * 31 + rows) * 31 + cols;
+    }
+
+    @Override
+    public String toString() {
+        return shape + " " + rows + "x" + cols;
+    }
+}
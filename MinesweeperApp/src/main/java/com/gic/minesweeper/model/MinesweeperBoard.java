@@ -0,0 +1,290 @@
+package com.gic.minesweeper.model;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * This is the packed storage of a Minesweeper board.
+ * Every square is one byte holding its adjacent mine count together with the mine and revealed flags.
+ * Squares are laid out row by row, so the square at (row, col) lives at index row * cols + col, and the
+ * BoardTopology decides which squares neighbour each other.
+ * The squares live in a ByteBuffer, which is a heap buffer for new boards and can be a memory-mapped file
+ * for boards resumed from disk.
+ * The board also keeps a running count of safe squares that are still hidden, so a win can be detected in constant time,
+ * and a bitset of the rows whose visible state changed since renderers last cleared it.
+ * Player flags live in a separate bitset beside the squares, together with the number of flags around each square,
+ * which is kept up to date as flags change so chords never rescan neighbours. Both are allocated on the first flag.
+ */
+public class MinesweeperBoard {
+
+    /**
+     * The bits of a square's byte, for code that reads or writes the squares buffer in bulk.
+     */
+    public static final int ADJACENT_MASK = 0x0F;
+    public static final int MINE = 0x10;
+    public static final int REVEALED = 0x20;
+
+    private final BoardTopology topology;
+    private final int rows;
+    private final int cols;
+    private final ByteBuffer squares;
+    private int hiddenSafeSquares;
+    private final long[] dirtyRows;
+    private final int[] neighbours;
+    private long[] flags;
+    private byte[] adjacentFlags;
+    private int flagCount;
+
+    public MinesweeperBoard(int size) {
+        this(BoardTopology.rectangular(size, size));
+    }
+
+    public MinesweeperBoard(BoardTopology topology) {
+        this(topology, ByteBuffer.allocate(topology.getSquareCount()), topology.getSquareCount());
+    }
+
+    /**
+     * Creates a board over existing square storage, such as a buffer mapped from a saved game.
+     */
+    public MinesweeperBoard(int size, ByteBuffer squares, int hiddenSafeSquares) {
+        this(BoardTopology.rectangular(size, size), squares, hiddenSafeSquares);
+    }
+
+    public MinesweeperBoard(BoardTopology topology, ByteBuffer squares, int hiddenSafeSquares) {
+        if (topology.getSquareCount() != squares.capacity()) {
+            throw new IllegalArgumentException("Board storage does not match size: " + topology);
+        }
+
+        this.topology = topology;
+        this.rows = topology.getRows();
+        this.cols = topology.getCols();
+        this.squares = squares;
+        this.hiddenSafeSquares = hiddenSafeSquares;
+        this.dirtyRows = new long[(rows + 63) >>> 6];
+        this.neighbours = new int[topology.getMaxNeighbours()];
+    }
+
+    public BoardTopology getTopology() {
+        return topology;
+    }
+
+    /**
+     * @return the number of columns, which is also the number of rows on a square board
+     */
+    public int getSize() {
+        return cols;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getSquareCount() {
+        return squares.capacity();
+    }
+
+    /**
+     * @return a read-only view of the packed squares, for bulk copies
+     */
+    public ByteBuffer getSquares() {
+        return squares.asReadOnlyBuffer().clear();
+    }
+
+    /**
+     * Overwrites a run of packed squares in one call, for code that computes whole rows at once.
+     * The bytes are not validated and nothing else is updated, so only their adjacent mine counts should change.
+     */
+    public void putSquares(int fromIndex, byte[] packed) {
+        squares.put(fromIndex, packed);
+    }
+
+    public int getHiddenSafeSquares() {
+        return hiddenSafeSquares;
+    }
+
+    public int indexOf(int row, int col) {
+        return row * cols + col;
+    }
+
+    public boolean isMine(int index) {
+        return (squares.get(index) & MINE) != 0;
+    }
+
+    public void setMine(int index, boolean mine) {
+        if (isMine(index) == mine) {
+            return;
+        }
+
+        if (mine) {
+            squares.put(index, (byte) (squares.get(index) | MINE));
+        } else {
+            squares.put(index, (byte) (squares.get(index) & ~MINE));
+        }
+
+        if (!isRevealed(index)) {
+            hiddenSafeSquares += mine ? -1 : 1;
+        }
+    }
+
+    public boolean isRevealed(int index) {
+        return (squares.get(index) & REVEALED) != 0;
+    }
+
+    public void reveal(int index) {
+        if (isRevealed(index)) {
+            return;
+        }
+
+        squares.put(index, (byte) (squares.get(index) | REVEALED));
+        if (!isMine(index)) {
+            hiddenSafeSquares--;
+        }
+        markRowDirty(index / cols);
+    }
+
+    /**
+     * Hides a revealed square again, for undo.
+     */
+    public void hide(int index) {
+        if (!isRevealed(index)) {
+            return;
+        }
+
+        squares.put(index, (byte) (squares.get(index) & ~REVEALED));
+        if (!isMine(index)) {
+            hiddenSafeSquares++;
+        }
+        markRowDirty(index / cols);
+    }
+
+    public int getAdjacentMines(int index) {
+        return squares.get(index) & ADJACENT_MASK;
+    }
+
+    public void setAdjacentMines(int index, int adjacentMines) {
+        if (adjacentMines < 0 || adjacentMines > 8) {
+            throw new IllegalArgumentException("Adjacent mines should be between 0 and 8: " + adjacentMines);
+        }
+        squares.put(index, (byte) ((squares.get(index) & ~ADJACENT_MASK) | adjacentMines));
+        if (isRevealed(index)) {
+            markRowDirty(index / cols);
+        }
+    }
+
+    public void incrementAdjacentMines(int index) {
+        setAdjacentMines(index, getAdjacentMines(index) + 1);
+    }
+
+    public boolean isFlagged(int index) {
+        return flags != null && (flags[index >>> 6] & 1L << index) != 0;
+    }
+
+    /**
+     * Sets or removes the player's flag on a square and updates the flag counts of its neighbours.
+     */
+    public void setFlagged(int index, boolean flagged) {
+        if (isFlagged(index) == flagged) {
+            return;
+        }
+        if (flags == null) {
+            flags = new long[(squares.capacity() + 63) >>> 6];
+            adjacentFlags = new byte[squares.capacity()];
+        }
+
+        flags[index >>> 6] ^= 1L << index;
+        flagCount += flagged ? 1 : -1;
+        int delta = flagged ? 1 : -1;
+        int count = topology.neighbours(index, neighbours);
+        for (int i = 0; i < count; i++) {
+            adjacentFlags[neighbours[i]] += delta;
+        }
+        markRowDirty(index / cols);
+    }
+
+    /**
+     * @return the number of flagged squares around the square
+     */
+    public int getAdjacentFlags(int index) {
+        return adjacentFlags == null ? 0 : adjacentFlags[index];
+    }
+
+    public int getFlagCount() {
+        return flagCount;
+    }
+
+    /**
+     * @return the first flagged square at or after fromIndex, or -1 if there is none
+     */
+    public int nextFlagged(int fromIndex) {
+        if (flags == null || fromIndex >= squares.capacity()) {
+            return -1;
+        }
+
+        int w = fromIndex >>> 6;
+        long word = flags[w] & (-1L << fromIndex);
+        while (word == 0) {
+            if (++w == flags.length) {
+                return -1;
+            }
+            word = flags[w];
+        }
+        return (w << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * Hides every square and removes all mines, counts and flags, keeping the storage.
+     */
+    public void clear() {
+        if (squares.hasArray()) {
+            Arrays.fill(squares.array(), squares.arrayOffset(), squares.arrayOffset() + squares.capacity(), (byte) 0);
+        } else {
+            for (int index = 0; index < squares.capacity(); index++) {
+                squares.put(index, (byte) 0);
+            }
+        }
+        hiddenSafeSquares = squares.capacity();
+        if (flags != null) {
+            Arrays.fill(flags, 0);
+            Arrays.fill(adjacentFlags, (byte) 0);
+            flagCount = 0;
+        }
+        markAllRowsDirty();
+    }
+
+    public void markRowDirty(int row) {
+        dirtyRows[row >>> 6] |= 1L << row;
+    }
+
+    public void markAllRowsDirty() {
+        for (int row = 0; row < rows; row++) {
+            markRowDirty(row);
+        }
+    }
+
+    /**
+     * @return the first dirty row at or after fromRow, or -1 if there is none
+     */
+    public int nextDirtyRow(int fromRow) {
+        if (fromRow >= rows) {
+            return -1;
+        }
+
+        int w = fromRow >>> 6;
+        long word = dirtyRows[w] & (-1L << fromRow);
+        while (word == 0) {
+            if (++w == dirtyRows.length) {
+                return -1;
+            }
+            word = dirtyRows[w];
+        }
+        return (w << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    public void clearDirtyRows() {
+        Arrays.fill(dirtyRows, 0);
+    }
+}
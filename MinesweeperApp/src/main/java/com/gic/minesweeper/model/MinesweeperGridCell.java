@@ -1,51 +1,63 @@
 package com.gic.minesweeper.model;
 
+/**
+ * This is a view of a single square of a MinesweeperBoard.
+ * Reads and writes go straight to the packed board storage.
+ */
 public class MinesweeperGridCell {
-    private boolean mine;
-    private boolean revealed;
-    private int adjacentMines;
 
-    public MinesweeperGridCell() {
-        this.mine = false;
-        this.revealed = false;
-        this.adjacentMines = 0;
+    private static final String HIDDEN = "_";
+    private static final String FLAGGED = "F";
+    private static final String[] DIGITS = {"0", "1", "2", "3", "4", "5", "6", "7", "8"};
+
+    private final MinesweeperBoard board;
+    private final int index;
+
+    public MinesweeperGridCell(MinesweeperBoard board, int index) {
+        this.board = board;
+        this.index = index;
     }
 
     public boolean isMine() {
-        return mine;
+        return board.isMine(index);
     }
 
     public void setMine(boolean mine) {
-        this.mine = mine;
+        board.setMine(index, mine);
     }
 
     public boolean isRevealed() {
-        return revealed;
+        return board.isRevealed(index);
     }
 
     public void reveal() {
-        revealed = true;
+        board.reveal(index);
+    }
+
+    public boolean isFlagged() {
+        return board.isFlagged(index);
+    }
+
+    public void setFlagged(boolean flagged) {
+        board.setFlagged(index, flagged);
     }
 
     public int getAdjacentMines() {
-        return adjacentMines;
+        return board.getAdjacentMines(index);
     }
 
     public void setAdjacentMines(int adjacentMines) {
-        this.adjacentMines = adjacentMines;
+        board.setAdjacentMines(index, adjacentMines);
     }
 
     public void incrementAdjacentMines() {
-        this.adjacentMines++;
+        board.incrementAdjacentMines(index);
     }
 
     public String getDisplayValue() {
-        if (!revealed) {
-            return "_";
-        } else if (adjacentMines == 0) {
-            return "0";
-        } else {
-            return String.valueOf(adjacentMines);
+        if (!isRevealed()) {
+            return isFlagged() ? FLAGGED : HIDDEN;
         }
+        return DIGITS[getAdjacentMines()];
     }
-}
\ No newline at end of file
+}
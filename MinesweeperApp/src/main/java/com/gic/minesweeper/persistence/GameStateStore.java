@@ -0,0 +1,135 @@
+package com.gic.minesweeper.persistence;
+
+import com.gic.minesweeper.model.MinesweeperBoard;
+import com.gic.minesweeper.service.MinesweeperGridService;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This saves and resumes games as compact binary files.
+ * A file is a fixed header followed by the packed board squares exactly as MinesweeperBoard stores them,
+ * so saving and loading are bulk copies through a memory-mapped FileChannel with no per-square work.
+ * The player's flags follow the squares as a list of board indexes, one int each; version 1 files have none.
+ */
+public class GameStateStore {
+
+    static final int MAGIC = 0x4D535750;
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 32;
+
+    private static final int GAME_OVER = 1;
+    private static final int GAME_WON = 2;
+
+    public static void save(MinesweeperGridService minesweeperGrid, Path path) throws IOException {
+        MinesweeperBoard board = minesweeperGrid.getBoard();
+        if (!board.getTopology().isSquareRectangular()) {
+            throw new IllegalArgumentException("Only square rectangular boards can be saved: " + board.getTopology());
+        }
+        int flagCount = board.getFlagCount();
+        long fileSize = HEADER_BYTES + (long) board.getSquareCount() + (long) flagCount * Integer.BYTES;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer file = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+            int flags = (minesweeperGrid.isGameOver() ? GAME_OVER : 0) | (minesweeperGrid.isGameWon() ? GAME_WON : 0);
+            file.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(board.getSize())
+                    .putInt(minesweeperGrid.getTotalMines())
+                    .putInt(board.getHiddenSafeSquares())
+                    .putInt(flags)
+                    .putInt(flagCount);
+            file.position(HEADER_BYTES);
+            file.put(board.getSquares());
+            for (int index = board.nextFlagged(0); index >= 0; index = board.nextFlagged(index + 1)) {
+                file.putInt(index);
+            }
+            file.force();
+        }
+    }
+
+    /**
+     * Loads a saved game fully into the heap.
+     */
+    public static MinesweeperGridService load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            Header header = readHeader(file, channel.size());
+
+            ByteBuffer squares = ByteBuffer.allocate(header.size * header.size);
+            squares.put(file.slice(HEADER_BYTES, header.size * header.size));
+            return restore(header, squares.clear(), file.position(HEADER_BYTES + header.size * header.size));
+        }
+    }
+
+    /**
+     * Resumes a saved game lazily.
+     * The squares stay in a private memory mapping of the file, so the operating system pages them in
+     * as the game touches them. Moves made on the resumed game never change the saved file.
+     * The saved file must not be overwritten while the resumed game is in use; save it to a new path instead.
+     */
+    public static MinesweeperGridService open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            Header header = readHeader(channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES), channel.size());
+            long squaresEnd = HEADER_BYTES + (long) header.size * header.size;
+            MappedByteBuffer squares = channel.map(FileChannel.MapMode.PRIVATE, HEADER_BYTES,
+                    (long) header.size * header.size);
+            ByteBuffer flagged = channel.map(FileChannel.MapMode.READ_ONLY, squaresEnd, channel.size() - squaresEnd);
+            return restore(header, squares, flagged);
+        }
+    }
+
+    private static Header readHeader(ByteBuffer file, long fileSize) throws IOException {
+        if (fileSize < HEADER_BYTES || file.getInt(0) != MAGIC) {
+            throw new IOException("File is not a saved Minesweeper game");
+        }
+        int version = file.getInt(4);
+        if (version != 1 && version != VERSION) {
+            throw new IOException("Saved game version is not supported: " + version);
+        }
+
+        int flagCount = version == 1 ? 0 : file.getInt(24);
+        Header header = new Header(file.getInt(8), file.getInt(12), file.getInt(16), file.getInt(20), flagCount);
+        if (header.size < 1 || flagCount < 0
+                || fileSize != HEADER_BYTES + (long) header.size * header.size + (long) flagCount * Integer.BYTES) {
+            throw new IOException("Saved game is truncated");
+        }
+        return header;
+    }
+
+    private static MinesweeperGridService restore(Header header, ByteBuffer squares, ByteBuffer flagged)
+            throws IOException {
+        MinesweeperBoard board = new MinesweeperBoard(header.size, squares, header.hiddenSafeSquares);
+        for (int i = 0; i < header.flagCount; i++) {
+            int index = flagged.getInt();
+            if (index < 0 || index >= board.getSquareCount()) {
+                throw new IOException("Saved flag is outside the board: " + index);
+            }
+            board.setFlagged(index, true);
+        }
+        return new MinesweeperGridService(board, header.totalMines,
+                (header.flags & GAME_OVER) != 0, (header.flags & GAME_WON) != 0);
+    }
+
+    private static class Header {
+
+        private final int size;
+        private final int totalMines;
+        private final int hiddenSafeSquares;
+        private final int flags;
+        private final int flagCount;
+
+        Header(int size, int totalMines, int hiddenSafeSquares, int flags, int flagCount) {
+            this.size = size;
+            this.totalMines = totalMines;
+            this.hiddenSafeSquares = hiddenSafeSquares;
+            this.flags = flags;
+            this.flagCount = flagCount;
+        }
+    }
+}
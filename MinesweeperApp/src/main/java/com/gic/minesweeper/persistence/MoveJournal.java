@@ -0,0 +1,130 @@
+package com.gic.minesweeper.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is an append-only binary log of the moves made in a game.
+ * The header records the board parameters and seed, and every move is a fixed-size record with the square,
+ * the number of squares it revealed and the resulting game status. The high bits of the status byte hold the kind
+ * of move: a reveal, a flag, an unflag or a chord, so a replay sees the flags that stopped cascades.
+ * Version 1 journals hold only reveals.
+ * Records are batched in a direct buffer and the file is forced to disk at most once per sync interval,
+ * so a crash loses at most that interval of moves. MoveJournalReplayer rebuilds games from the log.
+ */
+public class MoveJournal implements Closeable {
+
+    public static final int STATUS_PLAYING = 0;
+    public static final int STATUS_LOST = 1;
+    public static final int STATUS_WON = 2;
+
+    public static final int MOVE_REVEAL = 0;
+    public static final int MOVE_FLAG = 1;
+    public static final int MOVE_UNFLAG = 2;
+    public static final int MOVE_CHORD = 3;
+
+    static final int MAGIC = 0x4D53574A;
+    static final int VERSION = 2;
+    static final int KIND_SHIFT = 4;
+    static final int STATUS_MASK = (1 << KIND_SHIFT) - 1;
+    static final int HEADER_BYTES = 24;
+    static final int RECORD_BYTES = 13;
+
+    private static final int DEFAULT_BUFFER_BYTES = 64 * 1024;
+    private static final long DEFAULT_SYNC_INTERVAL_MILLIS = 1000;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final long syncIntervalNanos;
+    private long lastSync;
+    private long moves;
+
+    private MoveJournal(FileChannel channel, int bufferBytes, long syncIntervalMillis) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(Math.max(bufferBytes, HEADER_BYTES + RECORD_BYTES));
+        this.syncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(syncIntervalMillis);
+        this.lastSync = System.nanoTime();
+    }
+
+    public static MoveJournal create(Path path, int size, int mines, long seed) throws IOException {
+        return create(path, size, mines, seed, DEFAULT_BUFFER_BYTES, DEFAULT_SYNC_INTERVAL_MILLIS);
+    }
+
+    public static MoveJournal create(Path path, int size, int mines, long seed, int bufferBytes,
+                                     long syncIntervalMillis) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        MoveJournal moveJournal = new MoveJournal(channel, bufferBytes, syncIntervalMillis);
+        moveJournal.buffer.putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(size)
+                .putInt(mines)
+                .putLong(seed);
+        moveJournal.sync();
+        return moveJournal;
+    }
+
+    public long getMoveCount() {
+        return moves;
+    }
+
+    public void append(int row, int col, int revealed, int status) throws IOException {
+        append(MOVE_REVEAL, row, col, revealed, status);
+    }
+
+    /**
+     * @param kind one of the MOVE_ values
+     */
+    public void append(int kind, int row, int col, int revealed, int status) throws IOException {
+        if (kind < MOVE_REVEAL || kind > MOVE_CHORD) {
+            throw new IllegalArgumentException("Move kind is invalid: " + kind);
+        }
+        if (buffer.remaining() < RECORD_BYTES) {
+            flush();
+        }
+
+        buffer.putInt(row)
+                .putInt(col)
+                .putInt(revealed)
+                .put((byte) (kind << KIND_SHIFT | status));
+        moves++;
+
+        if (status != STATUS_PLAYING || System.nanoTime() - lastSync >= syncIntervalNanos) {
+            sync();
+        }
+    }
+
+    /**
+     * Writes the buffered records to the file without forcing them to disk.
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes the buffered records and forces them to disk.
+     */
+    public void sync() throws IOException {
+        flush();
+        channel.force(false);
+        lastSync = System.nanoTime();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.gic.minesweeper.persistence;
+
+import com.gic.minesweeper.service.MinesweeperGridService;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This rebuilds a game from its seed and a MoveJournal.
+ * Moves are read straight from a memory-mapped journal and applied to a fresh board, flags and chords included,
+ * and every recorded outcome is checked against the replayed one. A partial record at the end of the log, left by a crash, is ignored.
+ */
+public class MoveJournalReplayer {
+
+    public static MinesweeperGridService replay(Path path) throws IOException {
+        return replay(path, Long.MAX_VALUE);
+    }
+
+    /**
+     * @return the game as it was after the given number of moves, or after the last move if the journal is shorter
+     */
+    public static MinesweeperGridService replay(Path path, long moves) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer journal = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (journal.remaining() < MoveJournal.HEADER_BYTES || journal.getInt() != MoveJournal.MAGIC) {
+                throw new IOException("File is not a Minesweeper move journal");
+            }
+
+            int version = journal.getInt();
+            if (version != 1 && version != MoveJournal.VERSION) {
+                throw new IOException("Move journal version is not supported: " + version);
+            }
+
+            int size = journal.getInt();
+            int mines = journal.getInt();
+            long seed = journal.getLong();
+            MinesweeperGridService minesweeperGrid = new MinesweeperGridService(size, mines, seed);
+
+            for (long move = 0; move < moves && journal.remaining() >= MoveJournal.RECORD_BYTES; move++) {
+                int row = journal.getInt();
+                int col = journal.getInt();
+                int revealed = journal.getInt();
+                int record = journal.get();
+                int status = record & MoveJournal.STATUS_MASK;
+
+                if (!apply(minesweeperGrid, record >>> MoveJournal.KIND_SHIFT & 0x0F, row, col)
+                        || minesweeperGrid.getLastRevealedCount() != revealed
+                        || status(minesweeperGrid) != status) {
+                    throw new IOException("Move journal does not match the replayed game at move " + (move + 1));
+                }
+            }
+
+            return minesweeperGrid;
+        }
+    }
+
+    /**
+     * @return false if the move could not be made, which a journal of this game never records
+     */
+    private static boolean apply(MinesweeperGridService minesweeperGrid, int kind, int row, int col) throws IOException {
+        switch (kind) {
+            case MoveJournal.MOVE_REVEAL:
+                minesweeperGrid.revealCell(row, col);
+                return true;
+            case MoveJournal.MOVE_FLAG:
+            case MoveJournal.MOVE_UNFLAG:
+                return minesweeperGrid.setFlag(row, col, kind == MoveJournal.MOVE_FLAG);
+            case MoveJournal.MOVE_CHORD:
+                return minesweeperGrid.chordCell(row, col);
+            default:
+                throw new IOException("Move kind is invalid: " + kind);
+        }
+    }
+
+    static int status(MinesweeperGridService minesweeperGrid) {
+        if (minesweeperGrid.isGameOver()) {
+            return MoveJournal.STATUS_LOST;
+        }
+        return minesweeperGrid.isGameWon() ? MoveJournal.STATUS_WON : MoveJournal.STATUS_PLAYING;
+    }
+}
@@ -0,0 +1,219 @@
+package com.gic.minesweeper.server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is a headless server that hosts many Minesweeper sessions in one JVM.
+ * Clients connect over TCP on localhost and send one command per line:
+ * <pre>
+ * NEW size mines    creates a session and joins it, replies "SESSION id"
+ * JOIN id           joins an existing session, replies "SESSION id"
+ * REVEAL square     replies with the move result
+ * GRID              replies with the grid followed by a line with a single "."
+ * END               removes the joined session
+ * QUIT              closes the connection
+ * </pre>
+ * Every connection is served by its own thread, a virtual thread when the runtime supports them.
+ * A session stays available for JOIN after its connections close, until the SessionRegistry evicts it as idle.
+ */
+public class GameServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final SessionRegistry sessionRegistry;
+    private final ExecutorService connections = newConnectionExecutor();
+    private final ScheduledExecutorService evictor;
+    private final Thread acceptor;
+
+    public GameServer(int port) throws IOException {
+        this(port, new SessionRegistry());
+    }
+
+    public GameServer(int port, SessionRegistry sessionRegistry) throws IOException {
+        this.sessionRegistry = sessionRegistry;
+        this.serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "minesweeper-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long evictionMillis = Math.max(1000, sessionRegistry.getIdleTimeout().toMillis() / 4);
+        evictor.scheduleWithFixedDelay(() -> sessionRegistry.evictIdle(System.nanoTime()),
+                evictionMillis, evictionMillis, TimeUnit.MILLISECONDS);
+        this.acceptor = new Thread(this::acceptConnections, "minesweeper-acceptor");
+        acceptor.start();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7070;
+        GameServer gameServer = new GameServer(port);
+        System.out.println("Minesweeper server listening on port " + gameServer.getPort());
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public SessionRegistry getSessionRegistry() {
+        return sessionRegistry;
+    }
+
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> serve(socket));
+            } catch (SocketException e) {
+                return;
+            } catch (IOException e) {
+                System.err.println("Connection is not accepted: " + e.getMessage());
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            GameSession session = serveCommands(reader, writer);
+            if (session != null) {
+                session.detach();
+            }
+        } catch (IOException e) {
+            // The client went away; its session stays available for JOIN until it is evicted
+        }
+    }
+
+    /**
+     * @return the session joined when the connection ended, which the caller detaches
+     */
+    private GameSession serveCommands(BufferedReader reader, Writer writer) {
+        GameSession session = null;
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] command = line.trim().split("\\s+");
+                String name = command[0].toUpperCase();
+                if (name.equals("QUIT")) {
+                    return session;
+                }
+
+                try {
+                    switch (name) {
+                        case "NEW":
+                            if (!requireArguments(command, 2, "NEW size mines", writer)) {
+                                break;
+                            }
+                            GameSession created = sessionRegistry.create(Integer.parseInt(command[1]),
+                                    Integer.parseInt(command[2]));
+                            session = switchSession(session, created);
+                            writer.write("SESSION " + session.getId() + "\n");
+                            break;
+                        case "JOIN":
+                            if (!requireArguments(command, 1, "JOIN id", writer)) {
+                                break;
+                            }
+                            GameSession joined = sessionRegistry.get(Long.parseLong(command[1]));
+                            if (joined == null) {
+                                writer.write("ERROR Session is not found.\n");
+                            } else {
+                                session = switchSession(session, joined);
+                                writer.write("SESSION " + session.getId() + "\n");
+                            }
+                            break;
+                        case "REVEAL":
+                            if (requireArguments(command, 1, "REVEAL square", writer)
+                                    && requireSession(session, writer)) {
+                                writer.write(session.selectSquare(command[1]) + "\n");
+                            }
+                            break;
+                        case "GRID":
+                            if (requireSession(session, writer)) {
+                                writer.write(session.gridView());
+                                writer.write(".\n");
+                            }
+                            break;
+                        case "END":
+                            if (requireSession(session, writer)) {
+                                sessionRegistry.remove(session.getId());
+                                session = switchSession(session, null);
+                                writer.write("OK\n");
+                            }
+                            break;
+                        default:
+                            writer.write("ERROR Command is invalid.\n");
+                    }
+                } catch (NumberFormatException e) {
+                    writer.write("ERROR Command is invalid.\n");
+                } catch (IllegalArgumentException e) {
+                    writer.write("ERROR " + (e.getMessage() == null ? "Command is invalid." : e.getMessage()) + "\n");
+                }
+                writer.flush();
+            }
+        } catch (IOException e) {
+            // The client went away
+        }
+        return session;
+    }
+
+    private static GameSession switchSession(GameSession current, GameSession next) {
+        if (current == next) {
+            return current;
+        }
+        if (current != null) {
+            current.detach();
+        }
+        if (next != null) {
+            next.attach();
+        }
+        return next;
+    }
+
+    private static boolean requireArguments(String[] command, int arguments, String usage, Writer writer)
+            throws IOException {
+        if (command.length != arguments + 1) {
+            writer.write("ERROR Usage: " + usage + "\n");
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean requireSession(GameSession session, Writer writer) throws IOException {
+        if (session == null) {
+            writer.write("ERROR No session is joined.\n");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Uses a virtual thread per connection when the runtime provides them, and a cached platform thread pool otherwise.
+     */
+    private static ExecutorService newConnectionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        connections.shutdownNow();
+        evictor.shutdownNow();
+    }
+}
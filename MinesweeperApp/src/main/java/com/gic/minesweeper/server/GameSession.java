@@ -0,0 +1,85 @@
+package com.gic.minesweeper.server;
+
+import com.gic.minesweeper.controller.GameController;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This is one hosted game.
+ * Each session has its own lock, so moves on different sessions never wait for each other.
+ * A ReentrantLock is used rather than synchronized so waiting virtual threads do not pin their carrier.
+ * The session counts the connections that joined it and when it was last used, so idle sessions can be evicted.
+ */
+public class GameSession {
+
+    private final long id;
+    private final GameController game;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicInteger connections = new AtomicInteger();
+    private volatile long lastUsedNanos = System.nanoTime();
+
+    public GameSession(long id, GameController game) {
+        this.id = id;
+        this.game = game;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void attach() {
+        connections.incrementAndGet();
+        lastUsedNanos = System.nanoTime();
+    }
+
+    public void detach() {
+        connections.decrementAndGet();
+        lastUsedNanos = System.nanoTime();
+    }
+
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    public long getLastUsedNanos() {
+        return lastUsedNanos;
+    }
+
+    public String selectSquare(String square) {
+        lock.lock();
+        lastUsedNanos = System.nanoTime();
+        try {
+            return game.selectSquare(square);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String gridView() {
+        lock.lock();
+        lastUsedNanos = System.nanoTime();
+        try {
+            return game.gridView();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return whether the game keeps an undo history, which the protocol never uses
+     */
+    boolean isUndoEnabled() {
+        return game.isUndoEnabled();
+    }
+
+    public boolean isGameOver() {
+        lock.lock();
+        lastUsedNanos = System.nanoTime();
+        try {
+            return game.isGameOver();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
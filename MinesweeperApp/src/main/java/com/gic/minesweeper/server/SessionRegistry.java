@@ -0,0 +1,118 @@
+package com.gic.minesweeper.server;
+
+import com.gic.minesweeper.controller.GameController;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This keeps track of the hosted game sessions.
+ * Board size and the number of sessions are capped, so clients cannot exhaust the heap shared by every session.
+ * Sessions that no connection has joined and that have not been used for the idle timeout are evicted.
+ * A slot is reserved atomically before a session is built and released when it is removed, so concurrent NEW
+ * requests cannot exceed the cap.
+ */
+public class SessionRegistry {
+
+    public static final int DEFAULT_MAX_SIZE = 100;
+    public static final int DEFAULT_MAX_SESSIONS = 4096;
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(30);
+
+    private final Map<Long, GameSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final AtomicInteger reservedSlots = new AtomicInteger();
+    private final int maxSize;
+    private final int maxSessions;
+    private final long idleTimeoutNanos;
+
+    public SessionRegistry() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_MAX_SESSIONS, DEFAULT_IDLE_TIMEOUT);
+    }
+
+    public SessionRegistry(int maxSize, int maxSessions, Duration idleTimeout) {
+        if (maxSize < 2) {
+            throw new IllegalArgumentException("Maximum Grid size should be at least 2");
+        }
+        if (maxSessions < 1) {
+            throw new IllegalArgumentException("At least one session should be allowed");
+        }
+        this.maxSize = maxSize;
+        this.maxSessions = maxSessions;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+    }
+
+    public Duration getIdleTimeout() {
+        return Duration.ofNanos(idleTimeoutNanos);
+    }
+
+    public GameSession create(int size, int mines) {
+        if (size > maxSize) {
+            throw new IllegalArgumentException("Grid size should be at most " + maxSize);
+        }
+        if (!reserveSlot()) {
+            evictIdle(System.nanoTime());
+            if (!reserveSlot()) {
+                throw new IllegalArgumentException("Too many sessions, please try again later.");
+            }
+        }
+
+        try {
+            GameSession session = new GameSession(nextId.getAndIncrement(), new GameController(size, mines));
+            sessions.put(session.getId(), session);
+            return session;
+        } catch (RuntimeException e) {
+            reservedSlots.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private boolean reserveSlot() {
+        int reserved;
+        do {
+            reserved = reservedSlots.get();
+            if (reserved >= maxSessions) {
+                return false;
+            }
+        } while (!reservedSlots.compareAndSet(reserved, reserved + 1));
+        return true;
+    }
+
+    /**
+     * @return the session, or null if there is no session with this id
+     */
+    public GameSession get(long id) {
+        return sessions.get(id);
+    }
+
+    public boolean remove(long id) {
+        if (sessions.remove(id) == null) {
+            return false;
+        }
+        reservedSlots.decrementAndGet();
+        return true;
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Removes the sessions without a connection that were last used more than the idle timeout before now.
+     *
+     * @return the number of sessions removed
+     */
+    public int evictIdle(long nowNanos) {
+        int evicted = 0;
+        for (GameSession session : sessions.values()) {
+            if (session.getConnectionCount() == 0 && nowNanos - session.getLastUsedNanos() > idleTimeoutNanos
+                    && sessions.remove(session.getId(), session)) {
+                reservedSlots.decrementAndGet();
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+}
@@ -0,0 +1,52 @@
+package com.gic.minesweeper.service;
+
+import com.gic.minesweeper.model.MinesweeperBoard;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * This switches between sampling algorithms based on the mine density.
+ * Sparse boards use Floyd's sampling, which needs no extra memory.
+ * Dense boards use a partial Fisher-Yates shuffle, which avoids probing the board for already placed mines.
+ * Instances that keep the Fisher-Yates index array for reuse are not thread safe.
+ */
+public class AdaptiveMinePlacement implements MinePlacementStrategy {
+
+    private static final double DEFAULT_DENSE_THRESHOLD = 0.125;
+
+    private final double denseThreshold;
+    private final MinePlacementStrategy sparse = new FloydMinePlacement();
+    private final MinePlacementStrategy dense;
+
+    public AdaptiveMinePlacement() {
+        this(DEFAULT_DENSE_THRESHOLD, false);
+    }
+
+    /**
+     * @param keepIndexes true to keep the Fisher-Yates index array between placements, for loops over one board size
+     */
+    public AdaptiveMinePlacement(boolean keepIndexes) {
+        this(DEFAULT_DENSE_THRESHOLD, keepIndexes);
+    }
+
+    public AdaptiveMinePlacement(double denseThreshold) {
+        this(denseThreshold, false);
+    }
+
+    public AdaptiveMinePlacement(double denseThreshold, boolean keepIndexes) {
+        if (denseThreshold < 0 || denseThreshold > 1) {
+            throw new IllegalArgumentException("Dense threshold should be between 0 and 1");
+        }
+        this.denseThreshold = denseThreshold;
+        this.dense = new FisherYatesMinePlacement(keepIndexes);
+    }
+
+    @Override
+    public void placeMines(MinesweeperBoard board, int mines, RandomGenerator random) {
+        select(board.getSquareCount(), mines).placeMines(board, mines, random);
+    }
+
+    MinePlacementStrategy select(int squares, int mines) {
+        return mines >= squares * denseThreshold ? dense : sparse;
+    }
+}
@@ -0,0 +1,227 @@
+package com.gic.minesweeper.service;
+
+import com.gic.minesweeper.model.BoardTopology;
+import com.gic.minesweeper.model.MinesweeperBoard;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This computes the adjacent mine counts of a whole board in one pass.
+ * Mine rows are packed into 64-bit words and the eight neighbour planes are summed with bit-sliced adders,
+ * so 64 squares are counted per word operation. Large boards are split into row bands on a ForkJoinPool.
+ * Each band reads and writes the packed square bytes in bulk, rather than one validated call per square.
+ * Toroidal and hexagonal boards are counted through the neighbour tables of their BoardTopology instead.
+ */
+public class AdjacencyCounter {
+
+    private static final int PARALLEL_THRESHOLD = 1 << 18;
+    private static final int MIN_BAND_ROWS = 16;
+
+    public static void countAdjacentMines(MinesweeperBoard board) {
+        countAdjacentMines(board, ForkJoinPool.commonPool());
+    }
+
+    public static void countAdjacentMines(MinesweeperBoard board, ForkJoinPool pool) {
+        if (board.getTopology().getShape() != BoardTopology.Shape.RECTANGULAR) {
+            countWithTopology(board);
+            return;
+        }
+
+        int rows = board.getRows();
+        long[] mineRows = new long[rows * wordsPerRow(board.getCols())];
+        boolean[] changedRows = new boolean[rows];
+
+        if (board.getSquareCount() < PARALLEL_THRESHOLD || pool.getParallelism() < 2) {
+            packRows(board, mineRows, 0, rows);
+            countRows(board, mineRows, changedRows, 0, rows);
+        } else {
+            int bandRows = Math.max(MIN_BAND_ROWS, rows / (pool.getParallelism() * 4));
+            pool.invoke(new BandTask(board, mineRows, changedRows, 0, rows, bandRows, true));
+            pool.invoke(new BandTask(board, mineRows, changedRows, 0, rows, bandRows, false));
+        }
+
+        // Bands share the words of the dirty row bitset, so rows are only marked once every band is done
+        for (int row = 0; row < rows; row++) {
+            if (changedRows[row]) {
+                board.markRowDirty(row);
+            }
+        }
+    }
+
+    /**
+     * Clears every count, then adds each mine to the counts of its safe neighbours.
+     */
+    private static void countWithTopology(MinesweeperBoard board) {
+        BoardTopology topology = board.getTopology();
+        int[] neighbours = new int[topology.getMaxNeighbours()];
+        for (int index = 0; index < board.getSquareCount(); index++) {
+            board.setAdjacentMines(index, 0);
+        }
+        int cols = board.getCols();
+        for (int row = 0, index = 0; row < board.getRows(); row++) {
+            for (int col = 0; col < cols; col++, index++) {
+                if (!board.isMine(index)) {
+                    continue;
+                }
+                int count = topology.neighbours(row, col, neighbours);
+                for (int i = 0; i < count; i++) {
+                    if (!board.isMine(neighbours[i])) {
+                        board.incrementAdjacentMines(neighbours[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    private static int wordsPerRow(int cols) {
+        return (cols + 63) >>> 6;
+    }
+
+    private static void packRows(MinesweeperBoard board, long[] mineRows, int fromRow, int toRow) {
+        int cols = board.getCols();
+        int words = wordsPerRow(cols);
+        byte[] band = new byte[(toRow - fromRow) * cols];
+        board.getSquares().get(fromRow * cols, band);
+        for (int row = fromRow, i = 0; row < toRow; row++) {
+            int base = row * words;
+            for (int col = 0; col < cols; col++, i++) {
+                if ((band[i] & MinesweeperBoard.MINE) != 0) {
+                    mineRows[base + (col >>> 6)] |= 1L << col;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the counts of a band of rows into a copy of their square bytes, then puts the band back in one call.
+     * Rows where the count of a revealed square changed are flagged in changedRows.
+     */
+    private static void countRows(MinesweeperBoard board, long[] mineRows, boolean[] changedRows, int fromRow, int toRow) {
+        int rows = board.getRows();
+        int cols = board.getCols();
+        int words = wordsPerRow(cols);
+        byte[] band = new byte[(toRow - fromRow) * cols];
+        board.getSquares().get(fromRow * cols, band);
+
+        for (int row = fromRow; row < toRow; row++) {
+            int current = row * words;
+            int offset = (row - fromRow) * cols;
+            int above = current - words;
+            int below = current + words;
+
+            for (int w = 0; w < words; w++) {
+                // Three squares of the row above and below, two squares of the current row
+                long aboveOnes = 0;
+                long aboveTwos = 0;
+                if (row > 0) {
+                    long west = west(mineRows, above, w);
+                    long middle = mineRows[above + w];
+                    long east = east(mineRows, above, w, words);
+                    aboveOnes = west ^ middle ^ east;
+                    aboveTwos = majority(west, middle, east);
+                }
+
+                long belowOnes = 0;
+                long belowTwos = 0;
+                if (row < rows - 1) {
+                    long west = west(mineRows, below, w);
+                    long middle = mineRows[below + w];
+                    long east = east(mineRows, below, w, words);
+                    belowOnes = west ^ middle ^ east;
+                    belowTwos = majority(west, middle, east);
+                }
+
+                long west = west(mineRows, current, w);
+                long east = east(mineRows, current, w, words);
+                long currentOnes = west ^ east;
+                long currentTwos = west & east;
+
+                // Add the three partial sums into a 4-bit count per square
+                long ones = aboveOnes ^ belowOnes ^ currentOnes;
+                long onesCarry = majority(aboveOnes, belowOnes, currentOnes);
+                long twosSum = aboveTwos ^ belowTwos ^ currentTwos;
+                long twosCarry = majority(aboveTwos, belowTwos, currentTwos);
+                long twos = twosSum ^ onesCarry;
+                long twosOverflow = twosSum & onesCarry;
+                long fours = twosCarry ^ twosOverflow;
+                long eights = twosCarry & twosOverflow;
+
+                long mines = mineRows[current + w];
+                int firstCol = w << 6;
+                int lastCol = Math.min(cols, firstCol + 64);
+                for (int col = firstCol; col < lastCol; col++) {
+                    int bit = col & 63;
+                    int count = 0;
+                    if ((mines >>> bit & 1) == 0) {
+                        count = (int) ((ones >>> bit & 1)
+                                | (twos >>> bit & 1) << 1
+                                | (fours >>> bit & 1) << 2
+                                | (eights >>> bit & 1) << 3);
+                    }
+                    byte square = band[offset + col];
+                    byte packed = (byte) (square & ~MinesweeperBoard.ADJACENT_MASK | count);
+                    if (packed != square && (square & MinesweeperBoard.REVEALED) != 0) {
+                        changedRows[row] = true;
+                    }
+                    band[offset + col] = packed;
+                }
+            }
+        }
+        board.putSquares(fromRow * cols, band);
+    }
+
+    private static long west(long[] mineRows, int base, int w) {
+        long carry = w > 0 ? mineRows[base + w - 1] >>> 63 : 0;
+        return mineRows[base + w] << 1 | carry;
+    }
+
+    private static long east(long[] mineRows, int base, int w, int words) {
+        long carry = w + 1 < words ? mineRows[base + w + 1] << 63 : 0;
+        return mineRows[base + w] >>> 1 | carry;
+    }
+
+    private static long majority(long a, long b, long c) {
+        return (a & b) | (c & (a ^ b));
+    }
+
+    private static class BandTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final MinesweeperBoard board;
+        private final long[] mineRows;
+        private final boolean[] changedRows;
+        private final int fromRow;
+        private final int toRow;
+        private final int bandRows;
+        private final boolean pack;
+
+        BandTask(MinesweeperBoard board, long[] mineRows, boolean[] changedRows, int fromRow, int toRow, int bandRows,
+                 boolean pack) {
+            this.board = board;
+            this.mineRows = mineRows;
+            this.changedRows = changedRows;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            this.bandRows = bandRows;
+            this.pack = pack;
+        }
+
+        @Override
+        protected void compute() {
+            if (toRow - fromRow <= bandRows) {
+                if (pack) {
+                    packRows(board, mineRows, fromRow, toRow);
+                } else {
+                    countRows(board, mineRows, changedRows, fromRow, toRow);
+                }
+                return;
+            }
+
+            int middle = (fromRow + toRow) >>> 1;
+            invokeAll(new BandTask(board, mineRows, changedRows, fromRow, middle, bandRows, pack),
+                    new BandTask(board, mineRows, changedRows, middle, toRow, bandRows, pack));
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.gic.minesweeper.service;
+
+import com.gic.minesweeper.model.MinesweeperBoard;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * This is a Minesweeper grid that is generated lazily in square tiles.
+ * The grid can be as large as Integer.MAX_VALUE rows and columns, and a tile is only created when a reveal
+ * or a lookup reaches it. Mines that a tile places beyond the last row or column are ignored.
+ * The mines of a tile are a pure function of the seed and the tile coordinates, so adjacency across tile edges
+ * can always be computed from the neighbouring tiles, whether they are loaded or not.
+ * Tiles with revealed squares are kept; untouched tiles are held in an LRU cache and evicted when it is full.
+ * A cascade keeps the tiles around the square it is expanding in a 3x3 window, so the tile maps are only searched
+ * when the cascade first reaches a tile from a new window.
+ */
+public class ChunkedGridService {
+
+    private final int rows;
+    private final int cols;
+    private final long seed;
+    private final int tileSize;
+    private final int minesPerTile;
+    private final Map<Long, MinesweeperBoard> exploredTiles = new HashMap<>();
+    private final Map<Long, MinesweeperBoard> cachedTiles;
+    private final MinePlacementStrategy minePlacementStrategy = new FloydMinePlacement();
+    private long[] cascadeStack = new long[16];
+    private final MinesweeperBoard[] window = new MinesweeperBoard[9];
+    private final boolean[] windowExplored = new boolean[9];
+    private boolean gameOver;
+    private int lastRevealedCount;
+
+    public ChunkedGridService(int rows, int cols, int tileSize, int minesPerTile, long seed, int maxCachedTiles) {
+        if (rows < 2 || cols < 2) {
+            throw new IllegalArgumentException("Minimum Grid size should be 2x2");
+        }
+
+        if (tileSize < 2 || tileSize > 1024) {
+            throw new IllegalArgumentException("Tile size should be between 2 and 1024");
+        }
+
+        int maxMines = (int)(tileSize * tileSize * 0.35);
+        if (minesPerTile <= 0 || minesPerTile > maxMines) {
+            throw new IllegalArgumentException("Mines per tile should be between 1 and " + maxMines);
+        }
+
+        if (maxCachedTiles < 1) {
+            throw new IllegalArgumentException("At least one tile should be cached");
+        }
+
+        this.rows = rows;
+        this.cols = cols;
+        this.seed = seed;
+        this.tileSize = tileSize;
+        this.minesPerTile = minesPerTile;
+        this.cachedTiles = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, MinesweeperBoard> eldest) {
+                return size() > maxCachedTiles;
+            }
+        };
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public int getLastRevealedCount() {
+        return lastRevealedCount;
+    }
+
+    public int getExploredTileCount() {
+        return exploredTiles.size();
+    }
+
+    public int getCachedTileCount() {
+        return cachedTiles.size();
+    }
+
+    public boolean isValidPosition(long row, long col) {
+        return row >= 0 && row < rows && col >= 0 && col < cols;
+    }
+
+    public boolean isMine(int row, int col) {
+        checkPosition(row, col);
+        return tileOf(row, col).isMine(indexInTile(row, col));
+    }
+
+    public boolean isRevealed(int row, int col) {
+        checkPosition(row, col);
+        return tileOf(row, col).isRevealed(indexInTile(row, col));
+    }
+
+    public int getAdjacentMines(int row, int col) {
+        checkPosition(row, col);
+        return tileOf(row, col).getAdjacentMines(indexInTile(row, col));
+    }
+
+    private void checkPosition(int row, int col) {
+        if (!isValidPosition(row, col)) {
+            throw new IllegalArgumentException("Cell position is invalid: " + row + "," + col);
+        }
+    }
+
+    public boolean revealCell(int row, int col) {
+        lastRevealedCount = 0;
+        if (gameOver || !isValidPosition(row, col)) {
+            return false;
+        }
+
+        MinesweeperBoard tile = tileOf(row, col);
+        int index = indexInTile(row, col);
+        if (tile.isRevealed(index)) {
+            return true;
+        }
+
+        tile.reveal(index);
+        explore(row / tileSize, col / tileSize, tile);
+        lastRevealedCount = 1;
+        if (tile.isMine(index)) {
+            gameOver = true;
+            return true;
+        }
+
+        if (tile.getAdjacentMines(index) == 0) {
+            lastRevealedCount += revealAdjacentCells(row, col);
+        }
+        return true;
+    }
+
+    /**
+     * Reveals the cascade around an empty square, crossing tile edges as needed.
+     *
+     * @return the number of squares revealed by the cascade
+     */
+    private int revealAdjacentCells(int startRow, int startCol) {
+        int revealed = 0;
+        int top = 0;
+        cascadeStack[top++] = CoordinateCodec.pack(startRow, startCol);
+        int windowRow = -1;
+        int windowCol = -1;
+
+        while (top > 0) {
+            long square = cascadeStack[--top];
+            long row = CoordinateCodec.row(square);
+            long col = CoordinateCodec.col(square);
+
+            // The window is centred on the tile of the square being expanded
+            int tileRow = (int) row / tileSize;
+            int tileCol = (int) col / tileSize;
+            if (tileRow != windowRow || tileCol != windowCol) {
+                Arrays.fill(window, null);
+                windowRow = tileRow;
+                windowCol = tileCol;
+            }
+
+            for (long r = row - 1; r <= row + 1; r++) {
+                for (long c = col - 1; c <= col + 1; c++) {
+                    if (!isValidPosition(r, c)) {
+                        continue;
+                    }
+
+                    int slot = ((int) r / tileSize - tileRow + 1) * 3 + (int) c / tileSize - tileCol + 1;
+                    MinesweeperBoard tile = window[slot];
+                    if (tile == null) {
+                        tile = tileOf((int) r, (int) c);
+                        window[slot] = tile;
+                        windowExplored[slot] = false;
+                    }
+                    int index = indexInTile((int) r, (int) c);
+                    if (tile.isRevealed(index) || tile.isMine(index)) {
+                        continue;
+                    }
+
+                    tile.reveal(index);
+                    if (!windowExplored[slot]) {
+                        explore((int) r / tileSize, (int) c / tileSize, tile);
+                        windowExplored[slot] = true;
+                    }
+                    revealed++;
+                    if (tile.getAdjacentMines(index) == 0) {
+                        if (top == cascadeStack.length) {
+                            cascadeStack = Arrays.copyOf(cascadeStack, top * 2);
+                        }
+                        cascadeStack[top++] = CoordinateCodec.pack((int) r, (int) c);
+                    }
+                }
+            }
+        }
+
+        return revealed;
+    }
+
+    private void explore(int tileRow, int tileCol, MinesweeperBoard tile) {
+        long key = tileKey(tileRow, tileCol);
+        if (!exploredTiles.containsKey(key)) {
+            cachedTiles.remove(key);
+            exploredTiles.put(key, tile);
+        }
+    }
+
+    private MinesweeperBoard tileOf(int row, int col) {
+        int tileRow = row / tileSize;
+        int tileCol = col / tileSize;
+        long key = tileKey(tileRow, tileCol);
+
+        MinesweeperBoard tile = exploredTiles.get(key);
+        if (tile != null) {
+            return tile;
+        }
+
+        tile = cachedTiles.get(key);
+        if (tile == null) {
+            tile = generateTile(tileRow, tileCol);
+            cachedTiles.put(key, tile);
+        }
+        return tile;
+    }
+
+    private int indexInTile(int row, int col) {
+        return (row % tileSize) * tileSize + col % tileSize;
+    }
+
+    private MinesweeperBoard generateTile(int tileRow, int tileCol) {
+        MinesweeperBoard tile = generateMines(tileRow, tileCol);
+        AdjacencyCounter.countAdjacentMines(tile);
+
+        // Add the mines of the neighbouring tiles to the squares on this tile's border
+        MinesweeperBoard[] neighbours = new MinesweeperBoard[9];
+        long firstRow = (long) tileRow * tileSize;
+        long firstCol = (long) tileCol * tileSize;
+        for (int r = 0; r < tileSize; r++) {
+            for (int c = 0; c < tileSize; c++) {
+                if (r != 0 && r != tileSize - 1 && c != 0 && c != tileSize - 1) {
+                    continue;
+                }
+
+                int index = tile.indexOf(r, c);
+                if (tile.isMine(index)) {
+                    continue;
+                }
+
+                for (int dr = -1; dr <= 1; dr++) {
+                    for (int dc = -1; dc <= 1; dc++) {
+                        int tr = r + dr < 0 ? -1 : (r + dr >= tileSize ? 1 : 0);
+                        int tc = c + dc < 0 ? -1 : (c + dc >= tileSize ? 1 : 0);
+                        if ((tr == 0 && tc == 0) || !isValidPosition(firstRow + r + dr, firstCol + c + dc)) {
+                            continue;
+                        }
+
+                        int slot = (tr + 1) * 3 + tc + 1;
+                        if (neighbours[slot] == null) {
+                            neighbours[slot] = mineLayout(tileRow + tr, tileCol + tc);
+                        }
+                        int neighbourRow = r + dr - tr * tileSize;
+                        int neighbourCol = c + dc - tc * tileSize;
+                        if (neighbours[slot].isMine(neighbours[slot].indexOf(neighbourRow, neighbourCol))) {
+                            tile.incrementAdjacentMines(index);
+                        }
+                    }
+                }
+            }
+        }
+
+        tile.clearDirtyRows();
+        return tile;
+    }
+
+    private MinesweeperBoard mineLayout(int tileRow, int tileCol) {
+        long key = tileKey(tileRow, tileCol);
+        MinesweeperBoard tile = exploredTiles.get(key);
+        if (tile == null) {
+            tile = cachedTiles.get(key);
+        }
+        return tile != null ? tile : generateMines(tileRow, tileCol);
+    }
+
+    private MinesweeperBoard generateMines(int tileRow, int tileCol) {
+        MinesweeperBoard tile = new MinesweeperBoard(tileSize);
+        SplittableRandom random = new SplittableRandom(mix(seed ^ mix(tileKey(tileRow, tileCol))));
+        minePlacementStrategy.placeMines(tile, minesPerTile, random);
+
+        long firstRow = (long) tileRow * tileSize;
+        long firstCol = (long) tileCol * tileSize;
+        if (firstRow + tileSize > rows || firstCol + tileSize > cols) {
+            for (int r = 0; r < tileSize; r++) {
+                for (int c = 0; c < tileSize; c++) {
+                    if (!isValidPosition(firstRow + r, firstCol + c)) {
+                        tile.setMine(tile.indexOf(r, c), false);
+                    }
+                }
+            }
+        }
+        return tile;
+    }
+
+    private static long tileKey(int tileRow, int tileCol) {
+        return CoordinateCodec.pack(tileRow, tileCol);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
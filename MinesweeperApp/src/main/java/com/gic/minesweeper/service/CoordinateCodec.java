@@ -0,0 +1,103 @@
+package com.gic.minesweeper.service;
+
+/**
+ * This converts between square names such as A1 or AB12 and board coordinates.
+ * Rows are labelled A..Z, AA..ZZ, AAA.. and columns are 1-based numbers.
+ * A parsed square is packed into a long with the row in the high 32 bits and the column in the low 32 bits,
+ * so parsing never allocates.
+ */
+public class CoordinateCodec {
+
+    public static final long INVALID = -1L;
+
+    private static final int LETTERS = 26;
+
+    /**
+     * @return the packed square, or INVALID if the text is not a row label followed by a column number
+     */
+    public static long parse(CharSequence square) {
+        if (square == null) {
+            return INVALID;
+        }
+
+        int length = square.length();
+        int position = 0;
+        long row = 0;
+        while (position < length) {
+            int letter = Character.toUpperCase(square.charAt(position)) - 'A';
+            if (letter < 0 || letter >= LETTERS) {
+                break;
+            }
+            row = row * LETTERS + letter + 1;
+            if (row > Integer.MAX_VALUE) {
+                return INVALID;
+            }
+            position++;
+        }
+
+        if (position == 0 || position == length) {
+            return INVALID;
+        }
+
+        long number = 0;
+        while (position < length) {
+            int digit = square.charAt(position) - '0';
+            if (digit < 0 || digit > 9) {
+                return INVALID;
+            }
+            number = number * 10 + digit;
+            if (number > Integer.MAX_VALUE) {
+                return INVALID;
+            }
+            position++;
+        }
+
+        return pack((int) row - 1, (int) number - 1);
+    }
+
+    public static long pack(int row, int col) {
+        return (long) row << 32 | (col & 0xFFFFFFFFL);
+    }
+
+    public static int row(long square) {
+        return (int) (square >> 32);
+    }
+
+    public static int col(long square) {
+        return (int) square;
+    }
+
+    public static int rowLabelLength(int row) {
+        int length = 1;
+        for (int remaining = row / LETTERS; remaining > 0; remaining = (remaining - 1) / LETTERS) {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * Writes the label of the row into the destination.
+     *
+     * @return the offset just after the label
+     */
+    public static int writeRowLabel(int row, char[] destination, int offset) {
+        int end = offset + rowLabelLength(row);
+        int remaining = row + 1;
+        for (int i = end - 1; i >= offset; i--) {
+            remaining--;
+            destination[i] = (char) ('A' + remaining % LETTERS);
+            remaining /= LETTERS;
+        }
+        return end;
+    }
+
+    public static String rowLabel(int row) {
+        char[] label = new char[rowLabelLength(row)];
+        writeRowLabel(row, label, 0);
+        return new String(label);
+    }
+
+    public static String format(int row, int col) {
+        return rowLabel(row) + (col + 1);
+    }
+}
@@ -0,0 +1,47 @@
+package com.gic.minesweeper.service;
+
+import com.gic.minesweeper.model.MinesweeperBoard;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * This places mines with a partial Fisher-Yates shuffle over the square indexes.
+ * Exactly one random draw is made per mine, at the cost of an index array as large as the board.
+ * By default the index array is dropped after each placement. Loops that generate many boards of one size, such as
+ * a simulation worker, can keep it for reuse, and then instances are not thread safe.
+ */
+public class FisherYatesMinePlacement implements MinePlacementStrategy {
+
+    private static final int[] NO_INDEXES = new int[0];
+
+    private final boolean keepIndexes;
+    private int[] indexes = NO_INDEXES;
+
+    public FisherYatesMinePlacement() {
+        this(false);
+    }
+
+    public FisherYatesMinePlacement(boolean keepIndexes) {
+        this.keepIndexes = keepIndexes;
+    }
+
+    @Override
+    public void placeMines(MinesweeperBoard board, int mines, RandomGenerator random) {
+        int squares = board.getSquareCount();
+        int[] indexes = this.indexes.length == squares ? this.indexes : new int[squares];
+        if (keepIndexes) {
+            this.indexes = indexes;
+        }
+        for (int i = 0; i < squares; i++) {
+            indexes[i] = i;
+        }
+
+        for (int i = 0; i < mines; i++) {
+            int j = i + random.nextInt(squares - i);
+            int index = indexes[j];
+            indexes[j] = indexes[i];
+            indexes[i] = index;
+            board.setMine(index, true);
+        }
+    }
+}
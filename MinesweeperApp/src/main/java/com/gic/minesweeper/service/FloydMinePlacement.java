@@ -0,0 +1,22 @@
+package com.gic.minesweeper.service;
+
+import com.gic.minesweeper.model.MinesweeperBoard;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * This places mines with Floyd's sampling algorithm.
+ * Exactly one random draw is made per mine and the board itself serves as the set of chosen squares,
+ * so no memory beyond the board is needed.
+ */
+public class FloydMinePlacement implements MinePlacementStrategy {
+
+    @Override
+    public void placeMines(MinesweeperBoard board, int mines, RandomGenerator random) {
+        int squares = board.getSquareCount();
+        for (int j = squares - mines; j < squares; j++) {
+            int index = random.nextInt(j + 1);
+            board.setMine(board.isMine(index) ? j : index, true);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.gic.minesweeper.service;
+
+import com.gic.minesweeper.model.MinesweeperBoard;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * This is the extension point for placing mines on a board.
+ * Implementations expect a board without mines and must place exactly the requested number of mines
+ * using a bounded number of draws from the given random source.
+ */
+public interface MinePlacementStrategy {
+
+    void placeMines(MinesweeperBoard board, int mines, RandomGenerator random);
+}
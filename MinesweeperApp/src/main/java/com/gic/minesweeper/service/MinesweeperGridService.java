@@ -1,48 +1,113 @@
 package com.gic.minesweeper.service;
 
+import com.gic.minesweeper.event.GameEventPublisher;
+import com.gic.minesweeper.metrics.BoardConstructionEvent;
+import com.gic.minesweeper.metrics.GameMetrics;
+import com.gic.minesweeper.model.BoardPool;
+import com.gic.minesweeper.model.BoardTopology;
+import com.gic.minesweeper.model.MinesweeperBoard;
 import com.gic.minesweeper.model.MinesweeperGridCell;
 
+import java.util.Arrays;
+import java.util.Objects;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 
 public class MinesweeperGridService {
 
-    private final int size;
-    private final MinesweeperGridCell[][] minesweeperGridCells;
-    private final int totalMines;
+    private int rows;
+    private int cols;
+    private MinesweeperBoard board;
+    private int totalMines;
     private boolean gameOver;
     private boolean gameWon;
-    private final Random random;
+    private final MinePlacementStrategy minePlacementStrategy;
+    private int[] cascadeStack = new int[16];
+    private int[] lastRevealedSquares = new int[16];
+    private final int[] neighbours = new int[8];
+    private final int[] chordNeighbours = new int[8];
+    private int lastRevealedCount;
+    private RevealHistory history;
+    private GameEventPublisher eventPublisher;
+    private BoardPool boardPool;
 
     public MinesweeperGridService(int size, int mines) {
         this(size, mines, new Random());
     }
 
     public MinesweeperGridService(int size, int mines, Random random) {
+        this(size, mines, random, new AdaptiveMinePlacement());
+    }
 
-        if (size < 2) {
-            throw new IllegalArgumentException("Minimum Grid size should be 2x2");
-        }
+    /**
+     * Creates a board whose mine layout is fully determined by the seed.
+     */
+    public MinesweeperGridService(int size, int mines, long seed) {
+        this(size, mines, new SplittableRandom(seed), new AdaptiveMinePlacement());
+    }
 
-        int maxMines = (int)(size * size * 0.35);
-        if (mines <= 0 || mines > maxMines) {
-            throw new IllegalArgumentException("Mines count should be between 1 and " + maxMines);
-        }
+    public MinesweeperGridService(int size, int mines, RandomGenerator random, MinePlacementStrategy minePlacementStrategy) {
+        this(BoardTopology.rectangular(size, size), mines, random, minePlacementStrategy);
+    }
 
-        this.size = size;
+    /**
+     * Creates a board of any shape, such as a toroidal or hexagonal one.
+     */
+    public MinesweeperGridService(BoardTopology topology, int mines, RandomGenerator random,
+                                  MinePlacementStrategy minePlacementStrategy) {
+        validate(topology, mines);
+
+        this.rows = topology.getRows();
+        this.cols = topology.getCols();
         this.totalMines = mines;
-        this.minesweeperGridCells = new MinesweeperGridCell[size][size];
+        this.board = new MinesweeperBoard(topology);
         this.gameOver = false;
         this.gameWon = false;
-        this.random = random;
+        this.minePlacementStrategy = minePlacementStrategy;
 
-        initializeCells();
-        placeMines();
-        calculateAdjacentMines();
+        generate(random);
     }
 
+    /**
+     * Restores a game around an existing board, such as one loaded from a saved file.
+     */
+    public MinesweeperGridService(MinesweeperBoard board, int mines, boolean gameOver, boolean gameWon) {
+        if (board.getRows() < 2 || board.getCols() < 2) {
+            throw new IllegalArgumentException("Minimum Grid size should be 2x2");
+        }
+
+        this.rows = board.getRows();
+        this.cols = board.getCols();
+        this.totalMines = mines;
+        this.board = board;
+        this.gameOver = gameOver;
+        this.gameWon = gameWon;
+        this.minePlacementStrategy = new AdaptiveMinePlacement();
+    }
+
+    /**
+     * @return the number of columns, which is also the number of rows on a square board
+     */
     public int getSize() {
-        return size;
+        return cols;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public BoardTopology getTopology() {
+        return board.getTopology();
+    }
+
+    public int getTotalMines() {
+        return totalMines;
     }
 
     public boolean isGameWon() {
@@ -53,134 +118,418 @@ public class MinesweeperGridService {
         return gameOver;
     }
 
-    private void initializeCells() {
-        for (int row = 0; row < size; row++) {
-            for (int col = 0; col < size; col++) {
-                minesweeperGridCells[row][col] = new MinesweeperGridCell();
-            }
+    private static void validate(BoardTopology topology, int mines) {
+        if (topology.getRows() < 2 || topology.getCols() < 2) {
+            throw new IllegalArgumentException("Minimum Grid size should be 2x2");
         }
-    }
 
-    private void placeMines() {
-        int minesPlaced = 0;
-        while (minesPlaced < totalMines) {
-            int row = random.nextInt(size);
-            int col = random.nextInt(size);
-            
-            if (!minesweeperGridCells[row][col].isMine()) {
-                minesweeperGridCells[row][col].setMine(true);
-                minesPlaced++;
-            }
+        int maxMines = (int)(topology.getSquareCount() * 0.35);
+        if (mines <= 0 || mines > maxMines) {
+            throw new IllegalArgumentException("Mines count should be between 1 and " + maxMines);
         }
     }
 
-    private void calculateAdjacentMines() {
-        for (int row = 0; row < size; row++) {
-            for (int col = 0; col < size; col++) {
-                if (minesweeperGridCells[row][col].isMine()) {
-                    incrementAdjacentCells(row, col);
-                }
-            }
+    /**
+     * Starts a new game on the same board storage with a fresh mine layout drawn from the given random source.
+     */
+    public void reset(RandomGenerator random) {
+        reset(board.getTopology(), totalMines, random);
+    }
+
+    /**
+     * Starts a new game on a square rectangular board with a new size and mine count.
+     * A board of the same size is cleared and regenerated in place; otherwise a board of the new size replaces it.
+     */
+    public void reset(int size, int mines, RandomGenerator random) {
+        reset(BoardTopology.rectangular(size, size), mines, random);
+    }
+
+    /**
+     * Starts a new game on a board of the given topology, reusing the current board when the topology is the same.
+     * A new board is taken from the BoardPool set on this grid, if any. The previous board is never released here,
+     * since references from getBoard() may still use it; an owner that knows none remain can release it itself.
+     */
+    public void reset(BoardTopology topology, int mines, RandomGenerator random) {
+        validate(topology, mines);
+
+        if (topology.equals(board.getTopology())) {
+            board.clear();
+        } else {
+            board = boardPool != null ? boardPool.acquire(topology) : new MinesweeperBoard(topology);
+            rows = topology.getRows();
+            cols = topology.getCols();
+        }
+        totalMines = mines;
+        gameOver = false;
+        gameWon = false;
+        lastRevealedCount = 0;
+        if (history != null) {
+            history.clear();
         }
+        generate(random);
+        publishSnapshot();
     }
 
-    private void incrementAdjacentCells(int row, int col) {
-        for (int r = Math.max(0, row - 1); r <= Math.min(size - 1, row + 1); r++) {
-            for (int c = Math.max(0, col - 1); c <= Math.min(size - 1, col + 1); c++) {
-                if (r == row && c == col) {
-                    continue;
-                }
+    private void generate(RandomGenerator random) {
+        long start = GameMetrics.startTimer();
+        BoardConstructionEvent event = BoardConstructionEvent.start();
 
-                if (!minesweeperGridCells[r][c].isMine()) {
-                    minesweeperGridCells[r][c].incrementAdjacentMines();
-                }
-            }
+        placeMines(random);
+        calculateAdjacentMines();
+
+        GameMetrics.recordBoardConstruction(start);
+        if (event != null && event.shouldCommit()) {
+            event.boardSize = cols;
+            event.mines = totalMines;
+            event.commit();
         }
     }
 
+    private void placeMines(RandomGenerator random) {
+        minePlacementStrategy.placeMines(board, totalMines, random);
+    }
+
+    private void calculateAdjacentMines() {
+        AdjacencyCounter.countAdjacentMines(board);
+    }
+
     public boolean revealCell(int row, int col) {
+        lastRevealedCount = 0;
         if (gameOver || gameWon || !isValidPosition(row, col)) {
             return false;
         }
 
-        MinesweeperGridCell minesweeperGridCell = minesweeperGridCells[row][col];
-        if (minesweeperGridCell.isRevealed()) {
+        int index = board.indexOf(row, col);
+        if (board.isFlagged(index)) {
+            return false;
+        }
+        if (board.isRevealed(index)) {
             return true;
         }
 
-        minesweeperGridCell.reveal();
-        if (minesweeperGridCell.isMine()) {
+        revealSquare(index);
+        GameMetrics.recordCascade(lastRevealedCount);
+        if (!gameOver) {
+            checkWinningCondition();
+        }
+        recordHistory();
+        publishMove();
+
+        return true;
+    }
+
+    /**
+     * Reveals a hidden square and, if it is empty, the cascade around it. The caller checks for a win.
+     */
+    private void revealSquare(int index) {
+        board.reveal(index);
+        recordRevealed(index);
+        if (board.isMine(index)) {
             gameOver = true;
-            return true;
+            return;
         }
 
-        if (minesweeperGridCell.getAdjacentMines() == 0) {
-            revealAdjacentCells(row, col);
+        if (board.getAdjacentMines(index) == 0) {
+            revealAdjacentCells(index);
+        }
+    }
+
+    /**
+     * Sets or removes the player's flag on a hidden square. It is a move that reveals nothing.
+     *
+     * @return false if the game is over, the position is invalid or the square is already revealed
+     */
+    public boolean setFlag(int row, int col, boolean flagged) {
+        lastRevealedCount = 0;
+        if (gameOver || gameWon || !isValidPosition(row, col)) {
+            return false;
         }
 
-        checkWinningCondition();
-        
+        int index = board.indexOf(row, col);
+        if (board.isRevealed(index)) {
+            return false;
+        }
+        board.setFlagged(index, flagged);
         return true;
     }
 
-    private void revealAdjacentCells(int row, int col) {
-        for (int r = Math.max(0, row - 1); r <= Math.min(size - 1, row + 1); r++) {
-            for (int c = Math.max(0, col - 1); c <= Math.min(size - 1, col + 1); c++) {
+    public boolean isFlagged(int row, int col) {
+        return isValidPosition(row, col) && board.isFlagged(board.indexOf(row, col));
+    }
 
-                if (r == row && c == col) {
-                    continue;
-                }
+    /**
+     * Reveals every unflagged hidden neighbour of a revealed number whose flag count matches it, in one move.
+     * A wrongly placed flag makes the chord detonate a mine. The revealed squares are reported like revealCell's.
+     *
+     * @return false if the chord does not apply to the square
+     */
+    public boolean chordCell(int row, int col) {
+        lastRevealedCount = 0;
+        if (gameOver || gameWon || !isValidPosition(row, col)) {
+            return false;
+        }
+
+        int index = board.indexOf(row, col);
+        int adjacentMines = board.getAdjacentMines(index);
+        if (!board.isRevealed(index) || board.isMine(index) || adjacentMines == 0
+                || board.getAdjacentFlags(index) != adjacentMines) {
+            return false;
+        }
+
+        int count = board.getTopology().neighbours(index, chordNeighbours);
+        for (int i = 0; i < count && !gameOver; i++) {
+            int neighbour = chordNeighbours[i];
+            if (!board.isRevealed(neighbour) && !board.isFlagged(neighbour)) {
+                revealSquare(neighbour);
+            }
+        }
+        GameMetrics.recordCascade(lastRevealedCount);
+        if (!gameOver) {
+            checkWinningCondition();
+        }
+        if (lastRevealedCount > 0) {
+            recordHistory();
+            publishMove();
+        }
+        return true;
+    }
 
-                MinesweeperGridCell adjacentMinesweeperGridCell = minesweeperGridCells[r][c];
-                if (adjacentMinesweeperGridCell.isRevealed() || adjacentMinesweeperGridCell.isMine()) {
+    /**
+     * Applies a batch of moves in order and stops after the first one that ends the game.
+     * Moves are board indexes, row * cols + col; indexes outside the board are reported as MOVE_INVALID.
+     *
+     * @param result cleared and refilled with the outcome, so it can be reused across batches
+     */
+    public void revealCells(int[] squares, int offset, int length, MoveBatchResult result) {
+        Objects.checkFromIndexSize(offset, length, squares.length);
+        result.clear();
+
+        for (int i = offset; i < offset + length && !gameOver && !gameWon; i++) {
+            int index = squares[i];
+            if (index < 0 || index >= board.getSquareCount()) {
+                result.addMove(MoveBatchResult.MOVE_INVALID, -1);
+                continue;
+            }
+
+            if (board.isRevealed(index)) {
+                result.addMove(MoveBatchResult.MOVE_ALREADY_REVEALED, board.getAdjacentMines(index));
+                continue;
+            }
+
+            if (board.isFlagged(index)) {
+                result.addMove(MoveBatchResult.MOVE_FLAGGED, -1);
+                continue;
+            }
+
+            revealCell(index / cols, index % cols);
+            for (int j = 0; j < lastRevealedCount; j++) {
+                result.addRevealed(lastRevealedSquares[j]);
+            }
+            if (gameOver) {
+                result.addMove(MoveBatchResult.MOVE_DETONATED, -1);
+            } else {
+                result.addMove(MoveBatchResult.MOVE_REVEALED, board.getAdjacentMines(index));
+            }
+        }
+
+        if (gameOver) {
+            result.setStatus(MoveBatchResult.STATUS_LOST);
+        } else if (gameWon) {
+            result.setStatus(MoveBatchResult.STATUS_WON);
+        }
+    }
+
+    /**
+     * Reveals the cascade around an empty square without recursion.
+     * Squares are marked revealed before they are pushed, so every empty square enters the work stack at most once.
+     */
+    private void revealAdjacentCells(int start) {
+        int top = 0;
+        cascadeStack[top++] = start;
+
+        BoardTopology topology = board.getTopology();
+        while (top > 0) {
+            int count = topology.neighbours(cascadeStack[--top], neighbours);
+            for (int i = 0; i < count; i++) {
+                int adjacentIndex = neighbours[i];
+                if (board.isRevealed(adjacentIndex) || board.isMine(adjacentIndex) || board.isFlagged(adjacentIndex)) {
                     continue;
                 }
 
-                adjacentMinesweeperGridCell.reveal();
-                if (adjacentMinesweeperGridCell.getAdjacentMines() == 0) {
-                    revealAdjacentCells(r, c);
+                board.reveal(adjacentIndex);
+                recordRevealed(adjacentIndex);
+                if (board.getAdjacentMines(adjacentIndex) == 0) {
+                    if (top == cascadeStack.length) {
+                        cascadeStack = Arrays.copyOf(cascadeStack, Math.min(top * 2, board.getSquareCount()));
+                    }
+                    cascadeStack[top++] = adjacentIndex;
                 }
             }
         }
     }
 
+    private void recordRevealed(int index) {
+        if (lastRevealedCount == lastRevealedSquares.length) {
+            lastRevealedSquares = Arrays.copyOf(lastRevealedSquares, Math.min(lastRevealedCount * 2, board.getSquareCount()));
+        }
+        lastRevealedSquares[lastRevealedCount++] = index;
+    }
+
+    /**
+     * @return the number of squares revealed by the last call to revealCell, including the selected square
+     */
+    public int getLastRevealedCount() {
+        return lastRevealedCount;
+    }
+
+    /**
+     * @return the board index of the i-th square revealed by the last call to revealCell
+     */
+    public int getLastRevealedSquare(int i) {
+        Objects.checkIndex(i, lastRevealedCount);
+        return lastRevealedSquares[i];
+    }
+
+    private int status() {
+        return (gameOver ? RevealHistory.GAME_OVER : 0) | (gameWon ? RevealHistory.GAME_WON : 0);
+    }
+
+    /**
+     * Starts keeping an undo history from the next move. Without it, moves are not recorded and cannot be undone.
+     */
+    public void enableHistory() {
+        if (history == null) {
+            history = new RevealHistory();
+        }
+    }
+
+    public boolean isHistoryEnabled() {
+        return history != null;
+    }
+
+    private void recordHistory() {
+        if (history != null) {
+            history.record(lastRevealedSquares, lastRevealedCount, status());
+        }
+    }
+
+    public boolean canUndo() {
+        return history != null && history.canUndo();
+    }
+
+    public boolean canRedo() {
+        return history != null && history.canRedo();
+    }
+
+    /**
+     * Hides the squares the last move revealed and puts the game back in play.
+     *
+     * @return false if there is no move to undo, or the history is not enabled
+     */
+    public boolean undo() {
+        lastRevealedCount = 0;
+        if (!canUndo()) {
+            return false;
+        }
+
+        int move = history.undo();
+        for (int i = history.end(move) - 1; i >= history.start(move); i--) {
+            board.hide(history.square(i));
+        }
+        setStatus(0);
+        publishSnapshot();
+        return true;
+    }
+
+    /**
+     * Reveals again the squares of the last undone move and restores the game status from after it.
+     *
+     * @return false if there is no move to redo, or the history is not enabled
+     */
+    public boolean redo() {
+        lastRevealedCount = 0;
+        if (!canRedo()) {
+            return false;
+        }
+
+        int move = history.redo();
+        for (int i = history.start(move); i < history.end(move); i++) {
+            board.reveal(history.square(i));
+            recordRevealed(history.square(i));
+        }
+        setStatus(history.status(move));
+        publishMove();
+        return true;
+    }
+
+    /**
+     * Sets the pool that boards of a new topology are taken from on reset, or null to allocate them.
+     */
+    public void setBoardPool(BoardPool boardPool) {
+        this.boardPool = boardPool;
+    }
+
+    public GameEventPublisher getEventPublisher() {
+        return eventPublisher;
+    }
+
+    /**
+     * Sets the publisher that receives the reveal, win and loss events of this game, or null to publish none.
+     */
+    public void setEventPublisher(GameEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    private void publishMove() {
+        if (eventPublisher != null) {
+            eventPublisher.publishMove(board, lastRevealedSquares, lastRevealedCount, gameOver, gameWon);
+        }
+    }
+
+    private void publishSnapshot() {
+        if (eventPublisher != null) {
+            eventPublisher.publishSnapshot(board, gameOver, gameWon);
+        }
+    }
+
+    private void setStatus(int status) {
+        gameOver = (status & RevealHistory.GAME_OVER) != 0;
+        gameWon = (status & RevealHistory.GAME_WON) != 0;
+    }
+
     private void checkWinningCondition() {
-        for (int row = 0; row < size; row++) {
-            for (int col = 0; col < size; col++) {
-                MinesweeperGridCell minesweeperGridCell = minesweeperGridCells[row][col];
-                if (!minesweeperGridCell.isMine() && !minesweeperGridCell.isRevealed()) {
-                    return;
-                }
-            }
+        if (board.getHiddenSafeSquares() == 0) {
+            gameWon = true;
         }
+    }
 
-        gameWon = true;
+    /**
+     * @return the number of safe squares that still have to be revealed to win the game
+     */
+    public int getRemainingSafeSquares() {
+        return board.getHiddenSafeSquares();
     }
 
     public boolean isValidPosition(int row, int col) {
-        return row >= 0 && row < size && col >= 0 && col < size;
+        return row >= 0 && row < rows && col >= 0 && col < cols;
     }
 
     public MinesweeperGridCell getCell(int row, int col) {
         if (!isValidPosition(row, col)) {
             throw new IllegalArgumentException("Cell position is invalid: " + row + "," + col);
         }
-        return minesweeperGridCells[row][col];
+        return new MinesweeperGridCell(board, board.indexOf(row, col));
     }
 
-    public static int[] parseSquare(String square) {
-        if (square == null || square.length() < 2) {
-            throw new IllegalArgumentException("Square format is invalid: " + square);
-        }
+    public MinesweeperBoard getBoard() {
+        return board;
+    }
 
-        char rowChar = Character.toUpperCase(square.charAt(0));
-        int row = rowChar - 'A';
-        
-        try {
-            int col = Integer.parseInt(square.substring(1)) - 1;
-            return new int[]{row, col};
-        } catch (NumberFormatException e) {
+    public static int[] parseSquare(String square) {
+        long position = CoordinateCodec.parse(square);
+        if (position == CoordinateCodec.INVALID) {
             throw new IllegalArgumentException("Square format is invalid: " + square);
         }
+        return new int[]{CoordinateCodec.row(position), CoordinateCodec.col(position)};
     }
 }
\ No newline at end of file
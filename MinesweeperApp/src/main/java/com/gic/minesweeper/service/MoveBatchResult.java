@@ -0,0 +1,114 @@
+package com.gic.minesweeper.service;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * This is the outcome of a batch of moves applied by MinesweeperGridService.revealCells.
+ * It records a status code and the adjacent mine count of every applied move, and the board indexes of every square
+ * the batch revealed in reveal order. The arrays only grow, so a result reused across batches stops allocating.
+ */
+public class MoveBatchResult {
+
+    public static final int STATUS_PLAYING = 0;
+    public static final int STATUS_LOST = 1;
+    public static final int STATUS_WON = 2;
+
+    public static final int MOVE_REVEALED = 0;
+    public static final int MOVE_ALREADY_REVEALED = 1;
+    public static final int MOVE_INVALID = 2;
+    public static final int MOVE_DETONATED = 3;
+    public static final int MOVE_FLAGGED = 4;
+
+    private byte[] moveStatuses = new byte[16];
+    private byte[] adjacentMines = new byte[16];
+    private int[] revealedEnds = new int[16];
+    private int[] revealedSquares = new int[16];
+    private int moveCount;
+    private int revealedCount;
+    private int status;
+
+    void clear() {
+        moveCount = 0;
+        revealedCount = 0;
+        status = STATUS_PLAYING;
+    }
+
+    void addMove(int moveStatus, int adjacent) {
+        if (moveCount == moveStatuses.length) {
+            moveStatuses = Arrays.copyOf(moveStatuses, moveCount * 2);
+            adjacentMines = Arrays.copyOf(adjacentMines, moveCount * 2);
+            revealedEnds = Arrays.copyOf(revealedEnds, moveCount * 2);
+        }
+        moveStatuses[moveCount] = (byte) moveStatus;
+        adjacentMines[moveCount] = (byte) adjacent;
+        revealedEnds[moveCount] = revealedCount;
+        moveCount++;
+    }
+
+    void addRevealed(int index) {
+        if (revealedCount == revealedSquares.length) {
+            revealedSquares = Arrays.copyOf(revealedSquares, revealedCount * 2);
+        }
+        revealedSquares[revealedCount++] = index;
+    }
+
+    void setStatus(int status) {
+        this.status = status;
+    }
+
+    /**
+     * @return STATUS_PLAYING, STATUS_LOST or STATUS_WON after the batch
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * @return the number of moves applied, which stops short of the batch when the game ended
+     */
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * @return one of the MOVE_ codes for the i-th applied move
+     */
+    public int getMoveStatus(int i) {
+        Objects.checkIndex(i, moveCount);
+        return moveStatuses[i];
+    }
+
+    /**
+     * @return the adjacent mine count of the i-th selected square, or -1 if the move was invalid, flagged or detonated a mine
+     */
+    public int getAdjacentMines(int i) {
+        Objects.checkIndex(i, moveCount);
+        return adjacentMines[i];
+    }
+
+    public int getRevealedCount() {
+        return revealedCount;
+    }
+
+    public int getRevealedSquare(int i) {
+        Objects.checkIndex(i, revealedCount);
+        return revealedSquares[i];
+    }
+
+    /**
+     * @return the position in the revealed squares of the first square revealed by the i-th move
+     */
+    public int getRevealedStart(int i) {
+        Objects.checkIndex(i, moveCount);
+        return i == 0 ? 0 : revealedEnds[i - 1];
+    }
+
+    /**
+     * @return the position in the revealed squares just after the last square revealed by the i-th move
+     */
+    public int getRevealedEnd(int i) {
+        Objects.checkIndex(i, moveCount);
+        return revealedEnds[i];
+    }
+}
@@ -0,0 +1,90 @@
+package com.gic.minesweeper.service;
+
+import java.util.Arrays;
+
+/**
+ * This is the undo history of a game, stored as reveal deltas rather than board copies.
+ * Every move appends the board indexes it revealed to one shared int run and records where its run ends,
+ * together with the game status after it; every move starts from a game in play.
+ * Moves above the current position can be redone until a new move discards them, so memory grows with the squares
+ * actually revealed.
+ */
+class RevealHistory {
+
+    static final int GAME_OVER = 1;
+    static final int GAME_WON = 2;
+
+    private int[] squares = new int[64];
+    private int[] moveEnds = new int[16];
+    private byte[] statuses = new byte[16];
+    private int moveCount;
+    private int position;
+
+    /**
+     * Records a move, discarding any moves that were undone before it.
+     */
+    void record(int[] revealed, int count, int status) {
+        moveCount = position;
+        int start = position == 0 ? 0 : moveEnds[position - 1];
+        if (start + count > squares.length) {
+            squares = Arrays.copyOf(squares, Math.max(squares.length * 2, start + count));
+        }
+        if (moveCount == moveEnds.length) {
+            moveEnds = Arrays.copyOf(moveEnds, moveCount * 2);
+            statuses = Arrays.copyOf(statuses, moveCount * 2);
+        }
+
+        System.arraycopy(revealed, 0, squares, start, count);
+        moveEnds[moveCount] = start + count;
+        statuses[moveCount] = (byte) status;
+        moveCount++;
+        position = moveCount;
+    }
+
+    void clear() {
+        moveCount = 0;
+        position = 0;
+    }
+
+    boolean canUndo() {
+        return position > 0;
+    }
+
+    boolean canRedo() {
+        return position < moveCount;
+    }
+
+    /**
+     * Steps back over the last applied move.
+     *
+     * @return that move's index, for the accessors below
+     */
+    int undo() {
+        return --position;
+    }
+
+    /**
+     * Steps forward over the next undone move.
+     *
+     * @return that move's index, for the accessors below
+     */
+    int redo() {
+        return position++;
+    }
+
+    int start(int move) {
+        return move == 0 ? 0 : moveEnds[move - 1];
+    }
+
+    int end(int move) {
+        return moveEnds[move];
+    }
+
+    int square(int i) {
+        return squares[i];
+    }
+
+    int status(int move) {
+        return statuses[move];
+    }
+}
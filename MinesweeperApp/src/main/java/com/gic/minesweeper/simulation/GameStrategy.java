@@ -0,0 +1,19 @@
+package com.gic.minesweeper.simulation;
+
+import com.gic.minesweeper.service.MinesweeperGridService;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * This plays one game to the end for the simulation runner.
+ * Each worker gets its own strategy instance, so implementations may keep state between games.
+ */
+public interface GameStrategy {
+
+    /**
+     * Plays the freshly generated game until it is won or lost.
+     *
+     * @param random the worker's random stream, for strategies that guess
+     */
+    void play(MinesweeperGridService minesweeperGrid, RandomGenerator random);
+}
@@ -0,0 +1,87 @@
+package com.gic.minesweeper.simulation;
+
+import com.gic.minesweeper.service.AdaptiveMinePlacement;
+import com.gic.minesweeper.service.MinesweeperGridService;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * This plays many games in parallel to measure win rates.
+ * The games are split recursively on a ForkJoinPool and every split also splits the SplittableRandom stream,
+ * so the results depend only on the seed and never on the number of threads or the scheduling.
+ * Each leaf task reuses one board for all of its games and merges its statistics on the way back up.
+ */
+public class SimulationRunner {
+
+    private static final long GAMES_PER_TASK = 256;
+
+    private final ForkJoinPool pool;
+
+    public SimulationRunner() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public SimulationRunner(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public SimulationStatistics run(int size, int mines, long games, long seed, Supplier<? extends GameStrategy> strategies) {
+        if (games < 1) {
+            throw new IllegalArgumentException("At least one game should be simulated");
+        }
+        return pool.invoke(new SimulationTask(size, mines, games, new SplittableRandom(seed), strategies));
+    }
+
+    private static class SimulationTask extends RecursiveTask<SimulationStatistics> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int size;
+        private final int mines;
+        private final long games;
+        private final SplittableRandom random;
+        private final Supplier<? extends GameStrategy> strategies;
+
+        SimulationTask(int size, int mines, long games, SplittableRandom random, Supplier<? extends GameStrategy> strategies) {
+            this.size = size;
+            this.mines = mines;
+            this.games = games;
+            this.random = random;
+            this.strategies = strategies;
+        }
+
+        @Override
+        protected SimulationStatistics compute() {
+            if (games <= GAMES_PER_TASK) {
+                return playGames();
+            }
+
+            long half = games / 2;
+            SimulationTask left = new SimulationTask(size, mines, half, random.split(), strategies);
+            SimulationTask right = new SimulationTask(size, mines, games - half, random, strategies);
+            left.fork();
+            SimulationStatistics statistics = right.compute();
+            return statistics.merge(left.join());
+        }
+
+        private SimulationStatistics playGames() {
+            SimulationStatistics statistics = new SimulationStatistics();
+            GameStrategy strategy = strategies.get();
+            MinesweeperGridService minesweeperGrid = new MinesweeperGridService(size, mines, random,
+                    new AdaptiveMinePlacement(true));
+            int safeSquares = size * size - mines;
+
+            for (long game = 0; game < games; game++) {
+                if (game > 0) {
+                    minesweeperGrid.reset(random);
+                }
+                strategy.play(minesweeperGrid, random);
+                statistics.record(minesweeperGrid.isGameWon(), safeSquares - minesweeperGrid.getRemainingSafeSquares());
+            }
+            return statistics;
+        }
+    }
+}
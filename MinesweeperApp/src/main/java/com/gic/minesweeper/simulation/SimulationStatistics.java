@@ -0,0 +1,62 @@
+package com.gic.minesweeper.simulation;
+
+/**
+ * This holds the outcome counts of a batch of simulated games. Statistics from different workers are merged.
+ */
+public class SimulationStatistics {
+
+    private long games;
+    private long wins;
+    private long safeSquaresRevealed;
+
+    void record(boolean won, long revealed) {
+        games++;
+        if (won) {
+            wins++;
+        }
+        safeSquaresRevealed += revealed;
+    }
+
+    SimulationStatistics merge(SimulationStatistics other) {
+        games += other.games;
+        wins += other.wins;
+        safeSquaresRevealed += other.safeSquaresRevealed;
+        return this;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getWins() {
+        return wins;
+    }
+
+    public double getWinRate() {
+        return games == 0 ? 0 : (double) wins / games;
+    }
+
+    /**
+     * @return the mean number of safe squares revealed per game, including lost games
+     */
+    public double getMeanSafeSquaresRevealed() {
+        return games == 0 ? 0 : (double) safeSquaresRevealed / games;
+    }
+
+    /**
+     * @return the half-width of the 95% confidence interval of the win rate
+     */
+    public double getWinRateMargin() {
+        if (games == 0) {
+            return 0;
+        }
+        double winRate = getWinRate();
+        return 1.96 * Math.sqrt(winRate * (1 - winRate) / games);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("games=%d wins=%d winRate=%.4f±%.4f meanRevealed=%.1f",
+                games, wins, getWinRate(), getWinRateMargin(), getMeanSafeSquaresRevealed());
+    }
+}
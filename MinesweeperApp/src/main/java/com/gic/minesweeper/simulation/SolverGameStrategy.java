@@ -0,0 +1,29 @@
+package com.gic.minesweeper.simulation;
+
+import com.gic.minesweeper.service.MinesweeperGridService;
+import com.gic.minesweeper.solver.LowestRiskGuessPolicy;
+import com.gic.minesweeper.solver.MinesweeperSolver;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * This plays each game with the constraint-propagation solver and the lowest-risk guess policy.
+ * One solver is kept and reset between games of the same grid, so its working arrays are allocated once per worker.
+ */
+public class SolverGameStrategy implements GameStrategy {
+
+    private final LowestRiskGuessPolicy guessPolicy = new LowestRiskGuessPolicy();
+    private MinesweeperGridService solvedGrid;
+    private MinesweeperSolver solver;
+
+    @Override
+    public void play(MinesweeperGridService minesweeperGrid, RandomGenerator random) {
+        if (solvedGrid != minesweeperGrid) {
+            solvedGrid = minesweeperGrid;
+            solver = new MinesweeperSolver(minesweeperGrid, guessPolicy);
+        } else {
+            solver.reset();
+        }
+        solver.solve();
+    }
+}
@@ -0,0 +1,12 @@
+package com.gic.minesweeper.solver;
+
+/**
+ * This chooses the square to reveal when the solver cannot deduce a safe one.
+ */
+public interface GuessPolicy {
+
+    /**
+     * @return the board index of a square that is still unknown to the solver
+     */
+    int chooseSquare(MinesweeperSolver solver);
+}
@@ -0,0 +1,37 @@
+package com.gic.minesweeper.solver;
+
+/**
+ * This guesses the unknown square with the lowest local mine risk.
+ * A square next to revealed numbers takes the highest risk any of those numbers implies for its unknown neighbours;
+ * any other square takes the average density of the mines that are not yet located.
+ * The first move, when nothing is revealed, goes to the centre of the board.
+ * Only the frontier squares the solver tracks are scored, since every interior square has the same risk.
+ * Ties go to the lowest board index.
+ */
+public class LowestRiskGuessPolicy implements GuessPolicy {
+
+    @Override
+    public int chooseSquare(MinesweeperSolver solver) {
+        int size = solver.getSize();
+        int centre = solver.indexOf(size / 2, size / 2);
+        if (solver.getUnknownCount() == solver.getSquareCount() && solver.isUnknown(centre)) {
+            return centre;
+        }
+
+        int best = solver.firstInteriorSquare();
+        double bestRisk = best < 0 ? Double.MAX_VALUE : (double) solver.getUnknownMines() / solver.getUnknownCount();
+        for (int i = 0; i < solver.getFrontierCount(); i++) {
+            int index = solver.getFrontierSquare(i);
+            double risk = solver.getFrontierRisk(index);
+            if (risk < bestRisk || risk == bestRisk && index < best) {
+                bestRisk = risk;
+                best = index;
+            }
+        }
+
+        if (best < 0) {
+            throw new IllegalStateException("No unknown square is left to guess");
+        }
+        return best;
+    }
+}
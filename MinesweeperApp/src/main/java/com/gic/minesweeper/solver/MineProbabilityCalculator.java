@@ -0,0 +1,612 @@
+package com.gic.minesweeper.solver;
+
+import com.gic.minesweeper.model.MinesweeperBoard;
+import com.gic.minesweeper.service.MinesweeperGridService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This computes the probability that each hidden square is a mine, from the revealed squares and the mine count.
+ * Hidden squares next to revealed numbers form the frontier, which is split into components that share no number.
+ * Each component is enumerated on its own, counting its solutions and how often each square is a mine for every
+ * number of mines it holds. The components are then combined with the squares off the frontier, weighting each
+ * total by the number of ways the remaining mines fit in those squares.
+ * An update only rebuilds the components next to the squares the last move revealed, so the other components keep
+ * their results. Components larger than the enumeration cap are approximated from the density of their numbers
+ * instead, since enumerating them can take exponential time. Like MinesweeperSolver, it never reads the mine flag
+ * of a hidden square.
+ */
+public class MineProbabilityCalculator {
+
+    public static final int DEFAULT_MAX_ENUMERATED_SQUARES = 96;
+
+    private final MinesweeperGridService grid;
+    private final MinesweeperBoard board;
+    private final int size;
+    private final int maxEnumeratedSquares;
+    private final double[] probabilities;
+    private final double[] lnFactorials;
+    private final boolean[] revealed;
+    private final int[] componentOf;
+    private final int[] localIndex;
+    private final int[] marks;
+    private final int[] revealedSquares;
+    private final int[] seeds;
+    private final int[] squareBuffer;
+    private final int[] constraintBuffer;
+    private final int[] neighbours = new int[8];
+    private final List<ComponentResult> components = new ArrayList<>();
+    private int mark;
+    private int hidden;
+    private int frontier;
+    private int remainingMines;
+    private double offFrontierProbability;
+    private long enumerations;
+
+    public MineProbabilityCalculator(MinesweeperGridService grid) {
+        this(grid, DEFAULT_MAX_ENUMERATED_SQUARES);
+    }
+
+    /**
+     * @param maxEnumeratedSquares the largest component that is enumerated exactly
+     */
+    public MineProbabilityCalculator(MinesweeperGridService grid, int maxEnumeratedSquares) {
+        if (!grid.getTopology().isSquareRectangular()) {
+            throw new IllegalArgumentException("Only square rectangular boards are supported: " + grid.getTopology());
+        }
+        if (maxEnumeratedSquares < 1) {
+            throw new IllegalArgumentException("At least one square should be enumerated");
+        }
+        this.grid = grid;
+        this.board = grid.getBoard();
+        this.size = grid.getSize();
+        this.maxEnumeratedSquares = maxEnumeratedSquares;
+        int squareCount = board.getSquareCount();
+        this.probabilities = new double[squareCount];
+        this.revealed = new boolean[squareCount];
+        this.componentOf = new int[squareCount];
+        this.localIndex = new int[squareCount];
+        this.marks = new int[squareCount];
+        this.revealedSquares = new int[squareCount];
+        this.seeds = new int[squareCount];
+        this.squareBuffer = new int[squareCount];
+        this.constraintBuffer = new int[squareCount];
+        this.lnFactorials = new double[squareCount + 1];
+        for (int n = 2; n <= squareCount; n++) {
+            lnFactorials[n] = lnFactorials[n - 1] + Math.log(n);
+        }
+        rebuild();
+        combine();
+    }
+
+    /**
+     * @return the probability that the square is a mine, as of the last update
+     */
+    public double getProbability(int index) {
+        if (revealed[index]) {
+            return board.isMine(index) ? 1 : 0;
+        }
+        return componentOf[index] >= 0 ? probabilities[index] : offFrontierProbability;
+    }
+
+    public double getProbability(int row, int col) {
+        return getProbability(board.indexOf(row, col));
+    }
+
+    /**
+     * @return the number of independent frontier components found by the last update
+     */
+    public int getComponentCount() {
+        return components.size();
+    }
+
+    /**
+     * @return the number of components enumerated so far, excluding those kept from earlier updates or approximated
+     */
+    public long getEnumerationCount() {
+        return enumerations;
+    }
+
+    /**
+     * @return whether every component of the last update was small enough to be enumerated exactly
+     */
+    public boolean isExact() {
+        for (ComponentResult component : components) {
+            if (!component.exact) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Recomputes the probabilities after a move on the grid. It should be called after every move that reveals
+     * squares; if moves were missed or undone, the frontier is rebuilt from the whole board.
+     */
+    public void update() {
+        if (!applyLastMove()) {
+            rebuild();
+        }
+        combine();
+    }
+
+    /**
+     * Applies the squares revealed by the last move, rebuilding only the components they touch.
+     *
+     * @return false if the board does not match the squares seen so far plus the last move
+     */
+    private boolean applyLastMove() {
+        int revealedCount = 0;
+        for (int i = 0; i < grid.getLastRevealedCount(); i++) {
+            int square = grid.getLastRevealedSquare(i);
+            if (!revealed[square]) {
+                revealed[square] = true;
+                revealedSquares[revealedCount++] = square;
+                hidden--;
+                if (board.isMine(square)) {
+                    remainingMines--;
+                }
+            }
+        }
+        if (board.getHiddenSafeSquares() != hidden - remainingMines) {
+            return false;
+        }
+        if (revealedCount == 0) {
+            return true;
+        }
+
+        // The revealed squares leave their components, and their hidden neighbours gain a number
+        mark++;
+        int seedCount = 0;
+        for (int i = 0; i < revealedCount; i++) {
+            int square = revealedSquares[i];
+            if (componentOf[square] >= 0) {
+                components.get(componentOf[square]).dirty = true;
+            }
+            int count = hiddenNeighbours(square);
+            for (int j = 0; j < count; j++) {
+                int neighbour = neighbours[j];
+                if (componentOf[neighbour] >= 0) {
+                    components.get(componentOf[neighbour]).dirty = true;
+                } else if (marks[neighbour] != mark) {
+                    marks[neighbour] = mark;
+                    seeds[seedCount++] = neighbour;
+                }
+            }
+        }
+
+        for (ComponentResult component : components) {
+            if (!component.dirty) {
+                continue;
+            }
+            for (int square : component.squares) {
+                componentOf[square] = -1;
+                frontier--;
+                if (!revealed[square] && marks[square] != mark) {
+                    marks[square] = mark;
+                    seeds[seedCount++] = square;
+                }
+            }
+        }
+        removeDirtyComponents();
+
+        for (int i = 0; i < seedCount; i++) {
+            buildComponent(seeds[i]);
+        }
+        return true;
+    }
+
+    /**
+     * Removes the dirty components, moving the last component into each gap so only moved squares are relabelled.
+     */
+    private void removeDirtyComponents() {
+        int c = 0;
+        while (c < components.size()) {
+            if (!components.get(c).dirty) {
+                c++;
+                continue;
+            }
+            ComponentResult last = components.remove(components.size() - 1);
+            if (c < components.size()) {
+                components.set(c, last);
+                if (!last.dirty) {
+                    for (int square : last.squares) {
+                        componentOf[square] = c;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Rebuilds every component from the board.
+     */
+    private void rebuild() {
+        int squareCount = board.getSquareCount();
+        hidden = 0;
+        frontier = 0;
+        remainingMines = grid.getTotalMines();
+        components.clear();
+        for (int index = 0; index < squareCount; index++) {
+            revealed[index] = board.isRevealed(index);
+            componentOf[index] = -1;
+            if (!revealed[index]) {
+                hidden++;
+            } else if (board.isMine(index)) {
+                remainingMines--;
+            }
+        }
+        for (int index = 0; index < squareCount; index++) {
+            if (!revealed[index]) {
+                buildComponent(index);
+            }
+        }
+    }
+
+    /**
+     * Gathers the component of a hidden square by following the numbers around it, then enumerates it.
+     * Squares that already belong to a component, or that touch no number, are skipped.
+     */
+    private void buildComponent(int seed) {
+        if (componentOf[seed] >= 0) {
+            return;
+        }
+
+        int id = components.size();
+        int squareCount = 0;
+        int constraintCount = 0;
+        mark++;
+        componentOf[seed] = id;
+        squareBuffer[squareCount++] = seed;
+        for (int head = 0; head < squareCount; head++) {
+            int row = squareBuffer[head] / size;
+            int col = squareBuffer[head] % size;
+            for (int r = Math.max(0, row - 1); r <= Math.min(size - 1, row + 1); r++) {
+                for (int c = Math.max(0, col - 1); c <= Math.min(size - 1, col + 1); c++) {
+                    int constraint = board.indexOf(r, c);
+                    if (!revealed[constraint] || board.isMine(constraint) || marks[constraint] == mark) {
+                        continue;
+                    }
+                    marks[constraint] = mark;
+                    constraintBuffer[constraintCount++] = constraint;
+                    int count = hiddenNeighbours(constraint);
+                    for (int i = 0; i < count; i++) {
+                        if (componentOf[neighbours[i]] < 0) {
+                            componentOf[neighbours[i]] = id;
+                            squareBuffer[squareCount++] = neighbours[i];
+                        }
+                    }
+                }
+            }
+        }
+        if (constraintCount == 0) {
+            componentOf[seed] = -1;
+            return;
+        }
+
+        int[] squares = Arrays.copyOf(squareBuffer, squareCount);
+        int[] constraints = Arrays.copyOf(constraintBuffer, constraintCount);
+        frontier += squareCount;
+        if (squareCount <= maxEnumeratedSquares) {
+            components.add(enumerate(squares, constraints));
+            enumerations++;
+        } else {
+            components.add(approximate(squares, constraints));
+        }
+    }
+
+    /**
+     * Counts the solutions of one component by backtracking over its squares, checking every number a square touches.
+     */
+    private ComponentResult enumerate(int[] squares, int[] constraints) {
+        int squareCount = squares.length;
+        for (int i = 0; i < squareCount; i++) {
+            localIndex[squares[i]] = i;
+        }
+
+        // Link squares and numbers both ways, and order the squares number by number so checks fail early
+        int[] required = new int[constraints.length];
+        int[] unassigned = new int[constraints.length];
+        int[][] squareConstraints = new int[squareCount][];
+        int[] squareConstraintCounts = new int[squareCount];
+        int[] order = new int[squareCount];
+        boolean[] ordered = new boolean[squareCount];
+        int orderCount = 0;
+        for (int c = 0; c < constraints.length; c++) {
+            required[c] = remainingMines(constraints[c]);
+            int count = hiddenNeighbours(constraints[c]);
+            unassigned[c] = count;
+            for (int i = 0; i < count; i++) {
+                int local = localIndex[neighbours[i]];
+                squareConstraintCounts[local]++;
+                if (!ordered[local]) {
+                    ordered[local] = true;
+                    order[orderCount++] = local;
+                }
+            }
+        }
+        for (int i = 0; i < squareCount; i++) {
+            squareConstraints[i] = new int[squareConstraintCounts[i]];
+            squareConstraintCounts[i] = 0;
+        }
+        for (int c = 0; c < constraints.length; c++) {
+            int count = hiddenNeighbours(constraints[c]);
+            for (int i = 0; i < count; i++) {
+                int local = localIndex[neighbours[i]];
+                squareConstraints[local][squareConstraintCounts[local]++] = c;
+            }
+        }
+
+        ComponentResult result = new ComponentResult(squares);
+        Enumeration enumeration = new Enumeration(order, squareConstraints, required, unassigned, result);
+        enumeration.search(0, 0);
+        result.normalize();
+        return result;
+    }
+
+    /**
+     * Approximates a component too large to enumerate. Each square gets the average density of the numbers around
+     * it, scaled so the component holds a whole number of mines, and only that number of mines is given any ways.
+     */
+    private ComponentResult approximate(int[] squares, int[] constraints) {
+        for (int i = 0; i < squares.length; i++) {
+            localIndex[squares[i]] = i;
+        }
+
+        double[] densities = new double[squares.length];
+        int[] densityCounts = new int[squares.length];
+        for (int constraint : constraints) {
+            int count = hiddenNeighbours(constraint);
+            double density = (double) remainingMines(constraint) / count;
+            for (int i = 0; i < count; i++) {
+                int local = localIndex[neighbours[i]];
+                densities[local] += density;
+                densityCounts[local]++;
+            }
+        }
+
+        double expected = 0;
+        for (int i = 0; i < squares.length; i++) {
+            densities[i] /= densityCounts[i];
+            expected += densities[i];
+        }
+        int mines = (int) Math.round(expected);
+        if (expected > 0) {
+            for (int i = 0; i < squares.length; i++) {
+                densities[i] = Math.min(1, densities[i] * mines / expected);
+            }
+        }
+        return new ComponentResult(squares, mines, densities);
+    }
+
+    private void combine() {
+        int componentTotal = components.size();
+        int offFrontier = hidden - frontier;
+
+        // Prefix and suffix convolutions of the solution counts by number of mines
+        double[][] prefix = new double[componentTotal + 1][];
+        double[][] suffix = new double[componentTotal + 1][];
+        prefix[0] = new double[]{1};
+        suffix[componentTotal] = new double[]{1};
+        for (int c = 0; c < componentTotal; c++) {
+            prefix[c + 1] = convolve(prefix[c], components.get(c).ways);
+        }
+        for (int c = componentTotal - 1; c >= 0; c--) {
+            suffix[c] = convolve(components.get(c).ways, suffix[c + 1]);
+        }
+        double[] total = prefix[componentTotal];
+
+        // Weight each frontier total by the ways to place the other mines off the frontier, relative to the largest
+        double[] weights = new double[total.length];
+        double maxLnWeight = Double.NEGATIVE_INFINITY;
+        for (int t = 0; t < total.length; t++) {
+            int rest = remainingMines - t;
+            if (rest >= 0 && rest <= offFrontier) {
+                maxLnWeight = Math.max(maxLnWeight, lnBinomial(offFrontier, rest));
+            }
+        }
+        for (int t = 0; t < total.length; t++) {
+            int rest = remainingMines - t;
+            if (rest >= 0 && rest <= offFrontier) {
+                weights[t] = Math.exp(lnBinomial(offFrontier, rest) - maxLnWeight);
+            }
+        }
+
+        double normalizer = 0;
+        double offFrontierMines = 0;
+        for (int t = 0; t < total.length; t++) {
+            normalizer += total[t] * weights[t];
+            offFrontierMines += total[t] * weights[t] * (remainingMines - t);
+        }
+
+        offFrontierProbability = normalizer == 0 || offFrontier == 0 ? 0 : offFrontierMines / normalizer / offFrontier;
+        for (ComponentResult component : components) {
+            for (int square : component.squares) {
+                probabilities[square] = 0;
+            }
+        }
+        if (normalizer == 0) {
+            return;
+        }
+
+        for (int c = 0; c < componentTotal; c++) {
+            ComponentResult component = components.get(c);
+            double[] others = convolve(prefix[c], suffix[c + 1]);
+            for (int k = 0; k < component.ways.length; k++) {
+                if (component.ways[k] == 0) {
+                    continue;
+                }
+                double weight = 0;
+                for (int t = 0; t < others.length; t++) {
+                    weight += others[t] * weights[k + t];
+                }
+                if (weight == 0) {
+                    continue;
+                }
+                double[] mineWays = component.mineWays[k];
+                for (int i = 0; i < mineWays.length; i++) {
+                    probabilities[component.squares[i]] += mineWays[i] * weight / normalizer;
+                }
+            }
+        }
+    }
+
+    private static double[] convolve(double[] a, double[] b) {
+        double[] result = new double[a.length + b.length - 1];
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == 0) {
+                continue;
+            }
+            for (int j = 0; j < b.length; j++) {
+                result[i + j] += a[i] * b[j];
+            }
+        }
+        return result;
+    }
+
+    private double lnBinomial(int n, int k) {
+        return lnFactorials[n] - lnFactorials[k] - lnFactorials[n - k];
+    }
+
+    private int hiddenNeighbours(int index) {
+        int row = index / size;
+        int col = index % size;
+        int count = 0;
+        for (int r = Math.max(0, row - 1); r <= Math.min(size - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(size - 1, col + 1); c++) {
+                int neighbour = board.indexOf(r, c);
+                if (!revealed[neighbour]) {
+                    neighbours[count++] = neighbour;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the number's mines that are not already revealed
+     */
+    private int remainingMines(int constraint) {
+        int row = constraint / size;
+        int col = constraint % size;
+        int remaining = board.getAdjacentMines(constraint);
+        for (int r = Math.max(0, row - 1); r <= Math.min(size - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(size - 1, col + 1); c++) {
+                int neighbour = board.indexOf(r, c);
+                if (revealed[neighbour] && board.isMine(neighbour)) {
+                    remaining--;
+                }
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * This holds, for each number of mines in a component, its solution count and how often each square is a mine.
+     * Counts are scaled so the largest is 1; the scale cancels out when components are combined.
+     * An approximated component has ways only for its expected number of mines.
+     */
+    private static final class ComponentResult {
+
+        private final int[] squares;
+        private final double[] ways;
+        private final double[][] mineWays;
+        private final boolean exact;
+        private boolean dirty;
+
+        ComponentResult(int[] squares) {
+            this.squares = squares;
+            this.ways = new double[squares.length + 1];
+            this.mineWays = new double[squares.length + 1][squares.length];
+            this.exact = true;
+        }
+
+        ComponentResult(int[] squares, int mines, double[] probabilities) {
+            this.squares = squares;
+            this.ways = new double[mines + 1];
+            this.mineWays = new double[mines + 1][];
+            this.exact = false;
+            ways[mines] = 1;
+            mineWays[mines] = probabilities;
+        }
+
+        void normalize() {
+            double max = 0;
+            for (double count : ways) {
+                max = Math.max(max, count);
+            }
+            if (max == 0) {
+                return;
+            }
+            for (int k = 0; k < ways.length; k++) {
+                ways[k] /= max;
+                for (int i = 0; i < mineWays[k].length; i++) {
+                    mineWays[k][i] /= max;
+                }
+            }
+        }
+    }
+
+    /**
+     * This is the backtracking search over one component.
+     */
+    private static final class Enumeration {
+
+        private final int[] order;
+        private final int[][] squareConstraints;
+        private final int[] required;
+        private final int[] unassigned;
+        private final int[] assigned;
+        private final boolean[] mines;
+        private final ComponentResult result;
+
+        Enumeration(int[] order, int[][] squareConstraints, int[] required, int[] unassigned, ComponentResult result) {
+            this.order = order;
+            this.squareConstraints = squareConstraints;
+            this.required = required;
+            this.unassigned = unassigned;
+            this.assigned = new int[required.length];
+            this.mines = new boolean[order.length];
+            this.result = result;
+        }
+
+        void search(int position, int mineCount) {
+            if (position == order.length) {
+                result.ways[mineCount]++;
+                double[] mineWays = result.mineWays[mineCount];
+                for (int i = 0; i < mines.length; i++) {
+                    if (mines[i]) {
+                        mineWays[i]++;
+                    }
+                }
+                return;
+            }
+
+            int square = order[position];
+            for (int value = 0; value <= 1; value++) {
+                boolean consistent = true;
+                for (int constraint : squareConstraints[square]) {
+                    unassigned[constraint]--;
+                    assigned[constraint] += value;
+                    if (assigned[constraint] > required[constraint]
+                            || assigned[constraint] + unassigned[constraint] < required[constraint]) {
+                        consistent = false;
+                    }
+                }
+
+                if (consistent) {
+                    mines[square] = value == 1;
+                    search(position + 1, mineCount + value);
+                    mines[square] = false;
+                }
+
+                for (int constraint : squareConstraints[square]) {
+                    unassigned[constraint]++;
+                    assigned[constraint] -= value;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,439 @@
+package com.gic.minesweeper.solver;
+
+import com.gic.minesweeper.model.MinesweeperBoard;
+import com.gic.minesweeper.service.MinesweeperGridService;
+
+import java.util.Arrays;
+
+/**
+ * This plays a game through the public MinesweeperGridService API using constraint propagation.
+ * Every revealed number is a constraint on its unknown neighbours. Only the constraints touched by a change
+ * are re-examined: a reveal, a deduced mine or a deduced safe square queues the numbers around it.
+ * A constraint settles its neighbours when its remaining mines are zero or equal to its unknown count, and two nearby
+ * constraints settle the difference of their unknowns when one set contains the other.
+ * When nothing can be deduced, the configured GuessPolicy picks the next square.
+ * The solver never reads the mine flag of a hidden square. Player flags are ignored, and removed from any square the
+ * solver reveals.
+ */
+public class MinesweeperSolver {
+
+    private static final byte UNKNOWN = 0;
+    private static final byte SAFE = 1;
+    private static final byte MINE = 2;
+    private static final byte REVEALED = 3;
+
+    private final MinesweeperGridService grid;
+    private final GuessPolicy guessPolicy;
+    private MinesweeperBoard board;
+    private int size;
+    private byte[] states;
+    private boolean[] queued;
+    private int[] constraintQueue;
+    private int[] safeSquares;
+    private int[] frontier;
+    private int[] frontierSlots;
+    private final int[] unknowns = new int[8];
+    private final int[] otherUnknowns = new int[8];
+    private int queueSize;
+    private int safeCount;
+    private int frontierCount;
+    private int interiorCursor;
+    private int unknownCount;
+    private int knownMines;
+    private int deducedMoves;
+    private int guesses;
+    private boolean lastMoveGuessed;
+
+    public MinesweeperSolver(MinesweeperGridService grid, GuessPolicy guessPolicy) {
+        this.grid = grid;
+        this.guessPolicy = guessPolicy;
+        reset();
+    }
+
+    /**
+     * Forgets everything deduced and starts over on the grid's current game, such as after the grid was reset.
+     * The working arrays are reused while the board size stays the same.
+     */
+    public void reset() {
+        if (!grid.getTopology().isSquareRectangular()) {
+            throw new IllegalArgumentException("Only square rectangular boards are supported: " + grid.getTopology());
+        }
+        board = grid.getBoard();
+        size = grid.getSize();
+        int squareCount = board.getSquareCount();
+        if (states == null || states.length != squareCount) {
+            states = new byte[squareCount];
+            queued = new boolean[squareCount];
+            constraintQueue = new int[squareCount];
+            safeSquares = new int[squareCount];
+            frontier = new int[squareCount];
+            frontierSlots = new int[squareCount];
+        } else {
+            Arrays.fill(states, UNKNOWN);
+            Arrays.fill(queued, false);
+        }
+        Arrays.fill(frontierSlots, -1);
+        queueSize = 0;
+        safeCount = 0;
+        frontierCount = 0;
+        interiorCursor = 0;
+        unknownCount = squareCount;
+        knownMines = 0;
+        deducedMoves = 0;
+        guesses = 0;
+        lastMoveGuessed = false;
+
+        for (int index = 0; index < squareCount; index++) {
+            if (board.isRevealed(index)) {
+                markRevealed(index);
+            }
+        }
+    }
+
+    /**
+     * Makes one move, a deduced one if possible and a guess otherwise.
+     *
+     * @return false if the game was already over
+     */
+    public boolean step() {
+        if (grid.isGameOver() || grid.isGameWon()) {
+            return false;
+        }
+
+        deduce();
+        while (safeCount > 0) {
+            int index = safeSquares[--safeCount];
+            if (states[index] == SAFE) {
+                reveal(index, false);
+                return true;
+            }
+        }
+
+        reveal(guessPolicy.chooseSquare(this), true);
+        return true;
+    }
+
+    /**
+     * Plays until the game is over.
+     *
+     * @return true if the game was won
+     */
+    public boolean solve() {
+        while (step()) {
+            // Keep playing
+        }
+        return grid.isGameWon();
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getSquareCount() {
+        return states.length;
+    }
+
+    public int indexOf(int row, int col) {
+        return board.indexOf(row, col);
+    }
+
+    public boolean isUnknown(int index) {
+        return states[index] == UNKNOWN;
+    }
+
+    public boolean isKnownMine(int index) {
+        return states[index] == MINE;
+    }
+
+    public boolean isKnownSafe(int index) {
+        return states[index] == SAFE || states[index] == REVEALED;
+    }
+
+    public int getUnknownCount() {
+        return unknownCount;
+    }
+
+    /**
+     * @return the number of mines the solver has not located yet
+     */
+    public int getUnknownMines() {
+        return grid.getTotalMines() - knownMines;
+    }
+
+    public int getDeducedMoveCount() {
+        return deducedMoves;
+    }
+
+    public int getGuessCount() {
+        return guesses;
+    }
+
+    public boolean isLastMoveGuessed() {
+        return lastMoveGuessed;
+    }
+
+    /**
+     * @return the number of unknown squares next to a revealed number
+     */
+    public int getFrontierCount() {
+        return frontierCount;
+    }
+
+    /**
+     * @return one of the unknown squares next to a revealed number, in no particular order
+     */
+    public int getFrontierSquare(int i) {
+        return frontier[i];
+    }
+
+    /**
+     * @return the lowest unknown square with no revealed number around it, or -1 if there is none
+     */
+    public int firstInteriorSquare() {
+        // A square never becomes interior again once it is known or on the frontier, so the cursor only moves forward
+        while (interiorCursor < states.length
+                && (states[interiorCursor] != UNKNOWN || frontierSlots[interiorCursor] >= 0)) {
+            interiorCursor++;
+        }
+        return interiorCursor < states.length ? interiorCursor : -1;
+    }
+
+    /**
+     * @return the highest mine risk the revealed numbers around the square imply, or -1 if it has none
+     */
+    public double getFrontierRisk(int index) {
+        int row = index / size;
+        int col = index % size;
+        double risk = -1;
+        for (int r = Math.max(0, row - 1); r <= Math.min(size - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(size - 1, col + 1); c++) {
+                int constraint = board.indexOf(r, c);
+                if (isConstraint(constraint)) {
+                    int count = collectUnknowns(constraint, unknowns);
+                    if (count > 0) {
+                        risk = Math.max(risk, (double) remainingMines(constraint) / count);
+                    }
+                }
+            }
+        }
+        return risk;
+    }
+
+    private void reveal(int index, boolean guessed) {
+        lastMoveGuessed = guessed;
+        if (guessed) {
+            guesses++;
+        } else {
+            deducedMoves++;
+        }
+
+        int row = index / size;
+        int col = index % size;
+        if (grid.isFlagged(row, col)) {
+            // revealCell ignores flagged squares, so a player's flag would make the solver pick it forever
+            grid.setFlag(row, col, false);
+        }
+        grid.revealCell(row, col);
+        for (int i = 0; i < grid.getLastRevealedCount(); i++) {
+            markRevealed(grid.getLastRevealedSquare(i));
+        }
+    }
+
+    private void deduce() {
+        while (queueSize > 0) {
+            int constraint = constraintQueue[--queueSize];
+            queued[constraint] = false;
+            examine(constraint);
+        }
+    }
+
+    private void examine(int constraint) {
+        int count = collectUnknowns(constraint, unknowns);
+        if (count == 0) {
+            return;
+        }
+
+        int remaining = remainingMines(constraint);
+        if (remaining == 0 || remaining == count) {
+            settle(unknowns, count, remaining == count);
+            return;
+        }
+
+        int row = constraint / size;
+        int col = constraint % size;
+        for (int r = Math.max(0, row - 2); r <= Math.min(size - 1, row + 2); r++) {
+            for (int c = Math.max(0, col - 2); c <= Math.min(size - 1, col + 2); c++) {
+                int other = board.indexOf(r, c);
+                if (other == constraint || !isConstraint(other)) {
+                    continue;
+                }
+
+                int otherCount = collectUnknowns(other, otherUnknowns);
+                if (otherCount == 0) {
+                    continue;
+                }
+
+                int otherRemaining = remainingMines(other);
+                if (otherCount > count && contains(otherUnknowns, otherCount, unknowns, count)) {
+                    settleDifference(otherUnknowns, otherCount, unknowns, count, otherRemaining - remaining);
+                } else if (count > otherCount && contains(unknowns, count, otherUnknowns, otherCount)) {
+                    settleDifference(unknowns, count, otherUnknowns, otherCount, remaining - otherRemaining);
+                    return;
+                }
+            }
+        }
+    }
+
+    private void settleDifference(int[] superset, int supersetCount, int[] subset, int subsetCount, int mines) {
+        int differenceCount = supersetCount - subsetCount;
+        if (mines != 0 && mines != differenceCount) {
+            return;
+        }
+
+        for (int i = 0; i < supersetCount; i++) {
+            if (!contains(subset, subsetCount, superset[i])) {
+                if (mines == 0) {
+                    markSafe(superset[i]);
+                } else {
+                    markMine(superset[i]);
+                }
+            }
+        }
+    }
+
+    private void settle(int[] squares, int count, boolean mines) {
+        for (int i = 0; i < count; i++) {
+            if (mines) {
+                markMine(squares[i]);
+            } else {
+                markSafe(squares[i]);
+            }
+        }
+    }
+
+    private static boolean contains(int[] superset, int supersetCount, int[] subset, int subsetCount) {
+        for (int i = 0; i < subsetCount; i++) {
+            if (!contains(superset, supersetCount, subset[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean contains(int[] squares, int count, int square) {
+        for (int i = 0; i < count; i++) {
+            if (squares[i] == square) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isConstraint(int index) {
+        return states[index] == REVEALED && !board.isMine(index) && board.getAdjacentMines(index) > 0;
+    }
+
+    private int collectUnknowns(int constraint, int[] destination) {
+        int row = constraint / size;
+        int col = constraint % size;
+        int count = 0;
+        for (int r = Math.max(0, row - 1); r <= Math.min(size - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(size - 1, col + 1); c++) {
+                int index = board.indexOf(r, c);
+                if (states[index] == UNKNOWN) {
+                    destination[count++] = index;
+                }
+            }
+        }
+        return count;
+    }
+
+    private int remainingMines(int constraint) {
+        int row = constraint / size;
+        int col = constraint % size;
+        int remaining = board.getAdjacentMines(constraint);
+        for (int r = Math.max(0, row - 1); r <= Math.min(size - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(size - 1, col + 1); c++) {
+                if (states[board.indexOf(r, c)] == MINE) {
+                    remaining--;
+                }
+            }
+        }
+        return remaining;
+    }
+
+    private void markRevealed(int index) {
+        if (states[index] == REVEALED) {
+            return;
+        }
+        if (states[index] == UNKNOWN) {
+            unknownCount--;
+            removeFromFrontier(index);
+        }
+        states[index] = REVEALED;
+        if (isConstraint(index)) {
+            addUnknownsToFrontier(index);
+        }
+        enqueueAround(index);
+    }
+
+    private void markSafe(int index) {
+        if (states[index] != UNKNOWN) {
+            return;
+        }
+        states[index] = SAFE;
+        unknownCount--;
+        removeFromFrontier(index);
+        safeSquares[safeCount++] = index;
+        enqueueAround(index);
+    }
+
+    private void markMine(int index) {
+        if (states[index] != UNKNOWN) {
+            return;
+        }
+        states[index] = MINE;
+        unknownCount--;
+        removeFromFrontier(index);
+        knownMines++;
+        enqueueAround(index);
+    }
+
+    private void addUnknownsToFrontier(int constraint) {
+        int count = collectUnknowns(constraint, unknowns);
+        for (int i = 0; i < count; i++) {
+            if (frontierSlots[unknowns[i]] < 0) {
+                frontierSlots[unknowns[i]] = frontierCount;
+                frontier[frontierCount++] = unknowns[i];
+            }
+        }
+    }
+
+    private void removeFromFrontier(int index) {
+        int slot = frontierSlots[index];
+        if (slot < 0) {
+            return;
+        }
+        int last = frontier[--frontierCount];
+        frontier[slot] = last;
+        frontierSlots[last] = slot;
+        frontierSlots[index] = -1;
+    }
+
+    /**
+     * Queues the square and its neighbours, which are the constraints whose unknowns a change to the square affects.
+     */
+    private void enqueueAround(int index) {
+        int row = index / size;
+        int col = index % size;
+        for (int r = Math.max(0, row - 1); r <= Math.min(size - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(size - 1, col + 1); c++) {
+                int constraint = board.indexOf(r, c);
+                if (!queued[constraint] && isConstraint(constraint)) {
+                    queued[constraint] = true;
+                    constraintQueue[queueSize++] = constraint;
+                }
+            }
+        }
+    }
+}
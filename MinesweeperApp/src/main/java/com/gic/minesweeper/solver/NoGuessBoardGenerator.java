@@ -0,0 +1,268 @@
+package com.gic.minesweeper.solver;
+
+import com.gic.minesweeper.model.MinesweeperBoard;
+import com.gic.minesweeper.service.AdjacencyCounter;
+import com.gic.minesweeper.service.MinesweeperGridService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.random.RandomGenerator;
+
+/**
+ * This generates boards that can be won by pure deduction from a chosen first click.
+ * The first click and its neighbours never hold a mine, so the first reveal always opens a cascade.
+ * Several workers generate candidates speculatively, each from its own split of the seed, and verify them with
+ * a MinesweeperSolver that is not allowed to guess. The first valid board wins and the other workers stop.
+ * Each worker keeps one grid and one solver, and resets them for every candidate instead of building new ones.
+ * When the solver gets stuck, a candidate can be repaired by moving one mine from the stuck frontier to a square
+ * next to it that no revealed number touches, and then verified again from the start.
+ */
+public class NoGuessBoardGenerator {
+
+    private final ExecutorService executor;
+    private final int workers;
+    private final int maxRepairs;
+
+    public NoGuessBoardGenerator() {
+        this(ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism(), 16);
+    }
+
+    public NoGuessBoardGenerator(ExecutorService executor, int workers, int maxRepairs) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("At least one worker is needed");
+        }
+        if (maxRepairs < 0) {
+            throw new IllegalArgumentException("Repairs should not be negative: " + maxRepairs);
+        }
+        this.executor = executor;
+        this.workers = workers;
+        this.maxRepairs = maxRepairs;
+    }
+
+    /**
+     * @return a new game whose board can be won without guessing by first revealing (firstRow, firstCol)
+     * @throws IllegalStateException if no such board was found within the timeout
+     */
+    public MinesweeperGridService generate(int size, int mines, int firstRow, int firstCol, long seed, Duration timeout) {
+        if (size < 2) {
+            throw new IllegalArgumentException("Minimum Grid size should be 2x2");
+        }
+        int maxMines = (int)(size * size * 0.35);
+        if (mines <= 0 || mines > maxMines) {
+            throw new IllegalArgumentException("Mines count should be between 1 and " + maxMines);
+        }
+        if (firstRow < 0 || firstRow >= size || firstCol < 0 || firstCol >= size) {
+            throw new IllegalArgumentException("Cell position is invalid: " + firstRow + "," + firstCol);
+        }
+        int openingSquares = (Math.min(size - 1, firstRow + 1) - Math.max(0, firstRow - 1) + 1)
+                * (Math.min(size - 1, firstCol + 1) - Math.max(0, firstCol - 1) + 1);
+        if (mines > size * size - openingSquares) {
+            throw new IllegalArgumentException("Mines do not fit outside the first click: " + mines);
+        }
+
+        CompletableFuture<MinesweeperBoard> winner = new CompletableFuture<>();
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Future<?>> tasks = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            Worker worker = new Worker(size, mines, firstRow, firstCol, random.split(), winner);
+            tasks.add(executor.submit(worker::run));
+        }
+
+        try {
+            MinesweeperBoard board = winner.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            return new MinesweeperGridService(board, mines, false, false);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("No board without guesses was found within " + timeout);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Board generation failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Board generation was interrupted", e);
+        } finally {
+            winner.cancel(false);
+            for (Future<?> task : tasks) {
+                task.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * This generates and verifies candidates until any worker has found a board or the search is cancelled.
+     */
+    private class Worker {
+
+        private final int size;
+        private final int mines;
+        private final int firstClick;
+        private final SplittableRandom random;
+        private final CompletableFuture<MinesweeperBoard> winner;
+        private final boolean[] layout;
+        private final boolean[] nearFrontier;
+        private final int[] allowed;
+        private final RepairPolicy repairPolicy = new RepairPolicy();
+
+        Worker(int size, int mines, int firstRow, int firstCol, SplittableRandom random,
+               CompletableFuture<MinesweeperBoard> winner) {
+            this.size = size;
+            this.mines = mines;
+            this.firstClick = firstRow * size + firstCol;
+            this.random = random;
+            this.winner = winner;
+            this.layout = new boolean[size * size];
+            this.nearFrontier = new boolean[size * size];
+
+            int count = 0;
+            int[] squares = new int[size * size];
+            for (int index = 0; index < size * size; index++) {
+                if (Math.abs(index / size - firstRow) > 1 || Math.abs(index % size - firstCol) > 1) {
+                    squares[count++] = index;
+                }
+            }
+            this.allowed = Arrays.copyOf(squares, count);
+        }
+
+        void run() {
+            try {
+                placeMines();
+                MinesweeperGridService grid = new MinesweeperGridService(size, mines, random, this::copyLayout);
+                MinesweeperSolver solver = new MinesweeperSolver(grid, repairPolicy);
+                while (!winner.isDone() && !Thread.currentThread().isInterrupted()) {
+                    for (int repair = 0; repair <= maxRepairs && !winner.isDone(); repair++) {
+                        if (verify(grid, solver)) {
+                            MinesweeperBoard result = new MinesweeperBoard(size);
+                            fill(result);
+                            winner.complete(result);
+                            return;
+                        }
+                        if (!repairPolicy.hasRepair()) {
+                            break;
+                        }
+                        layout[repairPolicy.from] = false;
+                        layout[repairPolicy.to] = true;
+                        grid.reset(random);
+                    }
+                    placeMines();
+                    grid.reset(random);
+                }
+            } catch (RuntimeException e) {
+                winner.completeExceptionally(e);
+            }
+        }
+
+        private void placeMines() {
+            Arrays.fill(layout, false);
+            for (int i = 0; i < mines; i++) {
+                int j = i + random.nextInt(allowed.length - i);
+                int square = allowed[j];
+                allowed[j] = allowed[i];
+                allowed[i] = square;
+                layout[square] = true;
+            }
+        }
+
+        /**
+         * Places the current candidate's mines, so resetting the worker's grid loads the candidate.
+         */
+        private void copyLayout(MinesweeperBoard board, int mines, RandomGenerator random) {
+            for (int index = 0; index < layout.length; index++) {
+                if (layout[index]) {
+                    board.setMine(index, true);
+                }
+            }
+        }
+
+        private void fill(MinesweeperBoard board) {
+            board.clear();
+            copyLayout(board, mines, random);
+            AdjacencyCounter.countAdjacentMines(board);
+            board.clearDirtyRows();
+        }
+
+        /**
+         * @return true if the solver wins the candidate, already loaded into the grid, without a guess after the
+         * first click
+         */
+        private boolean verify(MinesweeperGridService grid, MinesweeperSolver solver) {
+            repairPolicy.reset();
+            solver.reset();
+            while (!repairPolicy.stuck && solver.step()) {
+                // Keep deducing
+            }
+            return grid.isGameWon() && !repairPolicy.stuck;
+        }
+
+        /**
+         * This opens the first click, and on any later guess records the stuck state and proposes a repair.
+         */
+        private class RepairPolicy implements GuessPolicy {
+
+            private boolean opened;
+            private boolean stuck;
+            private int from;
+            private int to;
+
+            void reset() {
+                opened = false;
+                stuck = false;
+                from = -1;
+                to = -1;
+            }
+
+            boolean hasRepair() {
+                return from >= 0 && to >= 0;
+            }
+
+            @Override
+            public int chooseSquare(MinesweeperSolver solver) {
+                if (!opened) {
+                    opened = true;
+                    return firstClick;
+                }
+
+                stuck = true;
+                int frontierCount = solver.getFrontierCount();
+                int frontierMines = 0;
+                Arrays.fill(nearFrontier, false);
+                for (int i = 0; i < frontierCount; i++) {
+                    int square = solver.getFrontierSquare(i);
+                    nearFrontier[square] = true;
+                    if (layout[square] && random.nextInt(++frontierMines) == 0) {
+                        from = square;
+                    }
+                }
+
+                // The mine moves to a safe unknown square beside the frontier, which no revealed number touches
+                int candidates = 0;
+                for (int i = 0; i < frontierCount; i++) {
+                    int square = solver.getFrontierSquare(i);
+                    int row = square / size;
+                    int col = square % size;
+                    for (int r = Math.max(0, row - 1); r <= Math.min(size - 1, row + 1); r++) {
+                        for (int c = Math.max(0, col - 1); c <= Math.min(size - 1, col + 1); c++) {
+                            int neighbour = r * size + c;
+                            if (nearFrontier[neighbour]) {
+                                continue;
+                            }
+                            nearFrontier[neighbour] = true;
+                            if (solver.isUnknown(neighbour) && !layout[neighbour]
+                                    && random.nextInt(++candidates) == 0) {
+                                to = neighbour;
+                            }
+                        }
+                    }
+                }
+                return frontierCount > 0 ? solver.getFrontierSquare(0) : solver.firstInteriorSquare();
+            }
+        }
+    }
+}
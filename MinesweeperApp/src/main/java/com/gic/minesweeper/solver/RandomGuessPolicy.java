@@ -0,0 +1,28 @@
+package com.gic.minesweeper.solver;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * This guesses a uniformly random starting point and takes the first unknown square from there.
+ */
+public class RandomGuessPolicy implements GuessPolicy {
+
+    private final RandomGenerator random;
+
+    public RandomGuessPolicy(RandomGenerator random) {
+        this.random = random;
+    }
+
+    @Override
+    public int chooseSquare(MinesweeperSolver solver) {
+        int squares = solver.getSquareCount();
+        int start = random.nextInt(squares);
+        for (int i = 0; i < squares; i++) {
+            int index = (start + i) % squares;
+            if (solver.isUnknown(index)) {
+                return index;
+            }
+        }
+        throw new IllegalStateException("No unknown square is left to guess");
+    }
+}
@@ -2,6 +2,8 @@ package com.gic.minesweeper.ui;
 
 import com.gic.minesweeper.controller.GameController;
 
+import java.io.IOException;
+import java.io.PrintWriter;
 import java.util.Scanner;
 
 /**
@@ -11,12 +13,19 @@ import java.util.Scanner;
 public class MinesweeperView {
 
     private static final Scanner scanner = new Scanner(System.in);
+    private static final PrintWriter gridWriter = new PrintWriter(System.out);
     
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0) {
+            runScripted(args);
+            return;
+        }
+
         boolean play = true;
+        GameController game = null;
         
         while (play) {
-            startGame();
+            game = startGame(game);
             System.out.println("Press any key to play again...");
             String input = scanner.nextLine().trim();
             play = !input.isEmpty();
@@ -25,7 +34,22 @@ public class MinesweeperView {
         scanner.close();
     }
 
-    private static void startGame() {
+    /**
+     * Plays a scripted game without prompts when the app is started with arguments.
+     */
+    private static void runScripted(String[] args) throws IOException {
+        try {
+            ScriptedGame.fromArguments(args).run(System.in, System.out);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: --size N --mines M [--seed S] [--moves FILE|-] [--output board|summary]");
+        }
+    }
+
+    /**
+     * Plays one game, reusing the previous game's controller and board storage when there is one.
+     */
+    private static GameController startGame(GameController game) {
         System.out.println("```");
         System.out.println("Welcome to Minesweeper!\n");
 
@@ -34,24 +58,43 @@ public class MinesweeperView {
         int maxMines = (int)(size * size * 0.35);
         int mines = getMinesCount(maxMines);
 
-        GameController game = new GameController(size, mines);
+        if (game == null) {
+            game = new GameController(size, mines);
+            game.enableUndo();
+        } else {
+            game.newGame(size, mines);
+        }
         
         System.out.println("\nHere is your minefield:");
-        System.out.println(game.gridView());
+        printGrid(game);
 
         while (!game.isGameOver()) {
-            System.out.print("Select a square to reveal (e.g. A1): ");
+            System.out.print("Select a square to reveal (e.g. A1), or type undo or redo: ");
             String square = scanner.nextLine().trim();
             
-            String result = game.selectSquare(square);
+            String result;
+            if (square.equalsIgnoreCase("undo")) {
+                result = game.undo();
+            } else if (square.equalsIgnoreCase("redo")) {
+                result = game.redo();
+            } else {
+                result = game.selectSquare(square);
+            }
             System.out.println(result);
             
             if (!game.isGameOver()) {
                 System.out.println("\nHere is your updated minefield:");
-                System.out.println(game.gridView());
+                printGrid(game);
             }
         }
 
+        return game;
+    }
+
+    private static void printGrid(GameController game) {
+        game.writeGridView(gridWriter);
+        gridWriter.println();
+        gridWriter.flush();
     }
 
     private static int getGridSize() {
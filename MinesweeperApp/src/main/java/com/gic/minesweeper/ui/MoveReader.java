@@ -0,0 +1,116 @@
+package com.gic.minesweeper.ui;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * This reads square names such as A1 straight from a byte stream into board indexes.
+ * Squares are separated by whitespace or commas. The stream is read in large blocks and parsed byte by byte,
+ * so no Strings are created per move. A UTF-8 byte order mark at the start is skipped, and any other non-ASCII byte
+ * makes its square invalid.
+ */
+class MoveReader {
+
+    static final int END = -2;
+    static final int INVALID = -1;
+
+    private static final int LETTERS = 26;
+    private static final int EOF = -1;
+    private static final byte[] BYTE_ORDER_MARK = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    private final InputStream in;
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+    private boolean started;
+
+    MoveReader(InputStream in, int bufferBytes) {
+        this.in = in;
+        this.buffer = new byte[bufferBytes];
+    }
+
+    /**
+     * @return the board index of the next square, INVALID if it is malformed or off the board, or END
+     */
+    int nextMove(int size) throws IOException {
+        if (!started) {
+            started = true;
+            skipByteOrderMark();
+        }
+        int b = read();
+        while (b == ' ' || b == ',' || b == '\n' || b == '\r' || b == '\t') {
+            b = read();
+        }
+        if (b == EOF) {
+            return END;
+        }
+
+        long row = 0;
+        int letters = 0;
+        while (isLetter(b)) {
+            row = Math.min(row * LETTERS + (b & 0x1F), Integer.MAX_VALUE);
+            letters++;
+            b = read();
+        }
+
+        long col = 0;
+        int digits = 0;
+        while (b >= '0' && b <= '9') {
+            col = Math.min(col * 10 + b - '0', Integer.MAX_VALUE);
+            digits++;
+            b = read();
+        }
+
+        boolean valid = letters > 0 && digits > 0 && isSeparator(b);
+        while (!isSeparator(b)) {
+            b = read();
+        }
+
+        if (!valid || row > size || col < 1 || col > size) {
+            return INVALID;
+        }
+        return (int) (row - 1) * size + (int) col - 1;
+    }
+
+    private static boolean isLetter(int b) {
+        return (b >= 'A' && b <= 'Z') || (b >= 'a' && b <= 'z');
+    }
+
+    private static boolean isSeparator(int b) {
+        return b == EOF || b == ' ' || b == ',' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    private void skipByteOrderMark() throws IOException {
+        for (byte expected : BYTE_ORDER_MARK) {
+            if (!fill() || buffer[position] != expected) {
+                return;
+            }
+            position++;
+        }
+    }
+
+    /**
+     * @return the next byte as a value from 0 to 255, or EOF
+     */
+    private int read() throws IOException {
+        if (!fill()) {
+            return EOF;
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    /**
+     * @return false if the buffer is empty and the stream has no more bytes
+     */
+    private boolean fill() throws IOException {
+        if (position == limit) {
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return false;
+            }
+        }
+        return true;
+    }
+}
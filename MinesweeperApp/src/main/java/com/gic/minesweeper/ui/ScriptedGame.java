@@ -0,0 +1,146 @@
+package com.gic.minesweeper.ui;
+
+import com.gic.minesweeper.controller.GameController;
+import com.gic.minesweeper.service.MoveBatchResult;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * This plays a scripted game without prompts, for replaying recorded games through the real entry point.
+ * Moves are read from a file or standard input through a MoveReader and applied in batches, and only the final board
+ * and a summary line, or just the summary, are written through a buffered stream.
+ *
+ * Usage: --size N --mines M [--seed S] [--moves FILE|-] [--output board|summary]
+ */
+public class ScriptedGame {
+
+    private static final int BATCH_MOVES = 4096;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final int size;
+    private final int mines;
+    private final Long seed;
+    private final String moves;
+    private final boolean printBoard;
+
+    private ScriptedGame(int size, int mines, Long seed, String moves, boolean printBoard) {
+        this.size = size;
+        this.mines = mines;
+        this.seed = seed;
+        this.moves = moves;
+        this.printBoard = printBoard;
+    }
+
+    public static ScriptedGame fromArguments(String[] args) {
+        Integer size = null;
+        Integer mines = null;
+        Long seed = null;
+        String moves = "-";
+        String output = "board";
+
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException("Missing value for " + args[i]);
+            }
+            String value = args[i + 1];
+            try {
+                switch (args[i]) {
+                    case "--size":
+                        size = Integer.parseInt(value);
+                        break;
+                    case "--mines":
+                        mines = Integer.parseInt(value);
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(value);
+                        break;
+                    case "--moves":
+                        moves = value;
+                        break;
+                    case "--output":
+                        output = value;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Input is invalid for " + args[i] + ": " + value);
+            }
+        }
+
+        if (size == null || mines == null) {
+            throw new IllegalArgumentException("Both --size and --mines are required");
+        }
+        if (!output.equals("board") && !output.equals("summary")) {
+            throw new IllegalArgumentException("Output should be board or summary: " + output);
+        }
+        return new ScriptedGame(size, mines, seed, moves, output.equals("board"));
+    }
+
+    /**
+     * Plays the moves from the configured file, or from the given input when the file is "-".
+     */
+    public void run(InputStream stdin, OutputStream stdout) throws IOException {
+        if (moves.equals("-")) {
+            run(stdin, new BufferedWriter(new OutputStreamWriter(stdout, StandardCharsets.US_ASCII), BUFFER_BYTES));
+        } else {
+            try (InputStream in = Files.newInputStream(Path.of(moves))) {
+                run(in, new BufferedWriter(new OutputStreamWriter(stdout, StandardCharsets.US_ASCII), BUFFER_BYTES));
+            }
+        }
+    }
+
+    private void run(InputStream in, Writer writer) throws IOException {
+        GameController game = seed == null ? new GameController(size, mines) : new GameController(size, mines, seed);
+        MoveReader moveReader = new MoveReader(in, BUFFER_BYTES);
+        MoveBatchResult result = new MoveBatchResult();
+        int[] batch = new int[BATCH_MOVES];
+        long applied = 0;
+        long invalid = 0;
+        long revealed = 0;
+
+        boolean more = true;
+        while (more && !game.isGameOver()) {
+            int count = 0;
+            while (count < batch.length) {
+                int move = moveReader.nextMove(size);
+                if (move == MoveReader.END) {
+                    more = false;
+                    break;
+                }
+                batch[count++] = move;
+            }
+
+            game.selectSquares(batch, 0, count, result);
+            applied += result.getMoveCount();
+            revealed += result.getRevealedCount();
+            for (int i = 0; i < result.getMoveCount(); i++) {
+                if (result.getMoveStatus(i) == MoveBatchResult.MOVE_INVALID) {
+                    invalid++;
+                }
+            }
+        }
+
+        if (printBoard) {
+            game.writeGridView(writer);
+        }
+        writer.write("moves=" + applied + " invalid=" + invalid + " revealed=" + revealed
+                + " status=" + status(game) + "\n");
+        writer.flush();
+    }
+
+    private static String status(GameController game) {
+        if (game.isGameWon()) {
+            return "WON";
+        }
+        return game.isGameOver() ? "LOST" : "PLAYING";
+    }
+}
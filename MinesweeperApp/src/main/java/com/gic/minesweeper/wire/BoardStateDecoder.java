@@ -0,0 +1,230 @@
+package com.gic.minesweeper.wire;
+
+import com.gic.minesweeper.model.BoardTopology;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * This is the client side of BoardStateEncoder: it rebuilds the visible grid from snapshot and delta messages.
+ * A delta is only applied on top of the version right before it. When a message was missed, apply returns false
+ * and the client should ask the server to catch it up from getVersion().
+ * Every message is validated in full before any of it is applied, and a snapshot's grid is only allocated once its
+ * payload is known to cover exactly the board it claims, up to the configured largest board.
+ */
+public class BoardStateDecoder {
+
+    public static final int DEFAULT_MAX_SQUARE_COUNT = 1 << 24;
+
+    private final int maxSquareCount;
+    private long version = -1;
+    private BoardTopology.Shape shape;
+    private int rows;
+    private int cols;
+    private int totalMines;
+    private int status;
+    private byte[] squares;
+
+    public BoardStateDecoder() {
+        this(DEFAULT_MAX_SQUARE_COUNT);
+    }
+
+    /**
+     * @param maxSquareCount the largest board a snapshot may describe
+     */
+    public BoardStateDecoder(int maxSquareCount) {
+        if (maxSquareCount < 1) {
+            throw new IllegalArgumentException("Largest board should have at least 1 square");
+        }
+        this.maxSquareCount = maxSquareCount;
+    }
+
+    /**
+     * @return the version of the decoded state, or -1 before the first snapshot
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public BoardTopology.Shape getShape() {
+        return shape;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getTotalMines() {
+        return totalMines;
+    }
+
+    /**
+     * @return one of the BoardStateEncoder STATUS_ values
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * @return 0-8 for a revealed number, or BoardStateEncoder.HIDDEN, FLAGGED or MINE
+     */
+    public int getSquare(int row, int col) {
+        if (squares == null) {
+            throw new IllegalStateException("No snapshot has been applied");
+        }
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            throw new IllegalArgumentException("Cell position is invalid: " + row + "," + col);
+        }
+        return squares[row * cols + col];
+    }
+
+    /**
+     * Applies a message. Deltas at or below the current version are ignored.
+     *
+     * @return false if the message is a delta that does not follow the current version, so messages were missed
+     */
+    public boolean apply(ByteBuffer message) {
+        ByteBuffer buffer = message.duplicate();
+        try {
+            byte type = buffer.get();
+            if (type == BoardStateEncoder.TYPE_SNAPSHOT) {
+                applySnapshot(buffer);
+                return true;
+            }
+            if (type == BoardStateEncoder.TYPE_DELTA) {
+                return applyDelta(buffer);
+            }
+            throw new IllegalArgumentException("Message type is invalid: " + type);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Message is truncated");
+        }
+    }
+
+    private void applySnapshot(ByteBuffer buffer) {
+        int shapeOrdinal = buffer.get();
+        int snapshotStatus = buffer.get();
+        int encoding = buffer.get();
+        long snapshotVersion = buffer.getLong();
+        int snapshotRows = buffer.getInt();
+        int snapshotCols = buffer.getInt();
+        int mines = buffer.getInt();
+        if (shapeOrdinal < 0 || shapeOrdinal >= BoardTopology.Shape.values().length) {
+            throw new IllegalArgumentException("Board shape is invalid: " + shapeOrdinal);
+        }
+        if (snapshotRows < 1 || snapshotCols < 1 || (long) snapshotRows * snapshotCols > maxSquareCount) {
+            throw new IllegalArgumentException("Board size is invalid: " + snapshotRows + "x" + snapshotCols);
+        }
+
+        int squareCount = snapshotRows * snapshotCols;
+        if (encoding == BoardStateEncoder.ENCODING_PACKED) {
+            if (buffer.remaining() < (squareCount + 1) / 2) {
+                throw new IllegalArgumentException("Message is truncated");
+            }
+        } else if (encoding == BoardStateEncoder.ENCODING_RUN_LENGTH) {
+            checkRuns(buffer.duplicate(), squareCount);
+        } else {
+            throw new IllegalArgumentException("Grid encoding is invalid: " + encoding);
+        }
+
+        byte[] decoded = new byte[squareCount];
+        if (encoding == BoardStateEncoder.ENCODING_PACKED) {
+            for (int index = 0; index < squareCount; index += 2) {
+                int packed = buffer.get();
+                decoded[index] = checkValue(packed & 0x0F);
+                if (index + 1 < squareCount) {
+                    decoded[index + 1] = checkValue(packed >>> 4 & 0x0F);
+                }
+            }
+        } else {
+            int index = 0;
+            while (index < squareCount) {
+                int run = buffer.get();
+                byte value = (byte) (run & 0x0F);
+                int length = runLength(buffer, run);
+                for (int end = index + length; index < end; index++) {
+                    decoded[index] = value;
+                }
+            }
+        }
+
+        shape = BoardTopology.Shape.values()[shapeOrdinal];
+        rows = snapshotRows;
+        cols = snapshotCols;
+        totalMines = mines;
+        status = snapshotStatus;
+        version = snapshotVersion;
+        squares = decoded;
+    }
+
+    /**
+     * Walks the runs without decoding them and checks that they cover exactly the board.
+     */
+    private static void checkRuns(ByteBuffer buffer, int squareCount) {
+        int index = 0;
+        while (index < squareCount) {
+            int run = buffer.get();
+            checkValue(run & 0x0F);
+            int length = runLength(buffer, run);
+            if (length <= 0 || length > squareCount - index) {
+                throw new IllegalArgumentException("Run is longer than the board");
+            }
+            index += length;
+        }
+    }
+
+    private static int runLength(ByteBuffer buffer, int run) {
+        int length = (run >>> 4 & 0x0F) + 1;
+        return length > BoardStateEncoder.MAX_SHORT_RUN ? length + Varint.get(buffer) : length;
+    }
+
+    private boolean applyDelta(ByteBuffer buffer) {
+        int deltaStatus = buffer.get();
+        long deltaVersion = buffer.getLong();
+        if (squares != null && deltaVersion <= version) {
+            return true;
+        }
+        if (squares == null || deltaVersion != version + 1) {
+            return false;
+        }
+
+        int count = Varint.get(buffer);
+        if (count < 0 || count > squares.length || count > buffer.remaining()) {
+            throw new IllegalArgumentException("Square count is invalid: " + count);
+        }
+        int[] indexes = new int[count];
+        int previous = 0;
+        for (int i = 0; i < count; i++) {
+            previous += Varint.unZigZag(Varint.get(buffer));
+            if (previous < 0 || previous >= squares.length) {
+                throw new IllegalArgumentException("Square index is invalid: " + previous);
+            }
+            indexes[i] = previous;
+        }
+        int valuesStart = buffer.position();
+        if (buffer.remaining() < (count + 1) / 2) {
+            throw new IllegalArgumentException("Message is truncated");
+        }
+        for (int i = 0; i < count; i++) {
+            checkValue(buffer.get(valuesStart + i / 2) >>> (i & 1) * 4 & 0x0F);
+        }
+
+        for (int i = 0; i < count; i++) {
+            squares[indexes[i]] = (byte) (buffer.get(valuesStart + i / 2) >>> (i & 1) * 4 & 0x0F);
+        }
+
+        status = deltaStatus;
+        version = deltaVersion;
+        return true;
+    }
+
+    private static byte checkValue(int value) {
+        if (value > BoardStateEncoder.MINE) {
+            throw new IllegalArgumentException("Square value is invalid: " + value);
+        }
+        return (byte) value;
+    }
+}
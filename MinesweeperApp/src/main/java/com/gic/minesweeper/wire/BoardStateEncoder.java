@@ -0,0 +1,244 @@
+package com.gic.minesweeper.wire;
+
+import com.gic.minesweeper.model.MinesweeperBoard;
+import com.gic.minesweeper.service.MinesweeperGridService;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This encodes what a player can see of a game into compact binary messages for remote clients.
+ * Every visible square is a 4-bit value: 0-8 for a revealed number, or HIDDEN, FLAGGED or MINE.
+ * <p>
+ * A snapshot message has a 24-byte header followed by the whole grid, either packed two squares per byte or
+ * run-length encoded, whichever is smaller:
+ * <pre>
+ * type (1) shape (1) status (1) encoding (1) version (8) rows (4) cols (4) mines (4)
+ * </pre>
+ * A run is one byte with the value in the low 4 bits and the run length minus one in the high 4 bits;
+ * a high nibble of 15 means the run is 16 squares plus a varint that follows.
+ * <p>
+ * A delta message carries the squares one move changed:
+ * <pre>
+ * type (1) status (1) version (8) count (varint) index gaps (zig-zag varints) values (packed 4-bit)
+ * </pre>
+ * Each index is stored as the gap from the previous one, which is small for a cascade.
+ * Every delta raises the version by one. The last deltas are retained, so a client that missed some messages
+ * catches up with the deltas after its version, or with a new snapshot when they are no longer retained.
+ * <p>
+ * This class is not thread safe; it is meant to be used under the same lock as the game it encodes.
+ */
+public class BoardStateEncoder {
+
+    public static final byte TYPE_SNAPSHOT = 1;
+    public static final byte TYPE_DELTA = 2;
+
+    public static final int ENCODING_PACKED = 0;
+    public static final int ENCODING_RUN_LENGTH = 1;
+
+    public static final int HIDDEN = 9;
+    public static final int FLAGGED = 10;
+    public static final int MINE = 11;
+
+    public static final int STATUS_PLAYING = 0;
+    public static final int STATUS_LOST = 1;
+    public static final int STATUS_WON = 2;
+
+    static final int SNAPSHOT_HEADER_BYTES = 24;
+    static final int DELTA_HEADER_BYTES = 10;
+    static final int MAX_SHORT_RUN = 15;
+
+    private final MinesweeperGridService grid;
+    private final ByteBuffer[] deltas;
+    private long version;
+    private long retainedFrom;
+    private int[] changedSquares = new int[64];
+
+    public BoardStateEncoder(MinesweeperGridService grid, int retainedDeltas) {
+        if (retainedDeltas < 1) {
+            throw new IllegalArgumentException("At least one delta should be retained");
+        }
+        this.grid = grid;
+        this.deltas = new ByteBuffer[retainedDeltas];
+    }
+
+    /**
+     * @return the version of the last encoded state, which a client holding every message is also at
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return a message with the whole visible grid at the current version
+     */
+    public ByteBuffer snapshot() {
+        MinesweeperBoard board = grid.getBoard();
+        int squareCount = board.getSquareCount();
+        int packedBytes = (squareCount + 1) / 2;
+        int runLengthBytes = runLengthSize(board, packedBytes);
+        int encoding = runLengthBytes < packedBytes ? ENCODING_RUN_LENGTH : ENCODING_PACKED;
+
+        ByteBuffer buffer = ByteBuffer.allocate(SNAPSHOT_HEADER_BYTES + Math.min(runLengthBytes, packedBytes));
+        buffer.put(TYPE_SNAPSHOT)
+                .put((byte) board.getTopology().getShape().ordinal())
+                .put((byte) status())
+                .put((byte) encoding)
+                .putLong(version)
+                .putInt(board.getRows())
+                .putInt(board.getCols())
+                .putInt(grid.getTotalMines());
+
+        if (encoding == ENCODING_RUN_LENGTH) {
+            writeRuns(board, buffer);
+        } else {
+            for (int index = 0; index < squareCount; index += 2) {
+                int high = index + 1 < squareCount ? visibleValue(board, index + 1) : 0;
+                buffer.put((byte) (visibleValue(board, index) | high << 4));
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Encodes the squares revealed by the last revealCell, chordCell or redo of the game.
+     *
+     * @return the delta, or null if the move changed no square
+     */
+    public ByteBuffer recordReveal() {
+        int count = grid.getLastRevealedCount();
+        if (changedSquares.length < count) {
+            changedSquares = new int[Math.max(count, changedSquares.length * 2)];
+        }
+        for (int i = 0; i < count; i++) {
+            changedSquares[i] = grid.getLastRevealedSquare(i);
+        }
+        return recordSquares(changedSquares, 0, count);
+    }
+
+    /**
+     * Encodes the current visible values of the given board indexes, for example after a flag was set.
+     *
+     * @return the delta, or null if no square was given
+     */
+    public ByteBuffer recordSquares(int[] squares, int offset, int length) {
+        if (length == 0) {
+            return null;
+        }
+
+        MinesweeperBoard board = grid.getBoard();
+        int indexBytes = 0;
+        int previous = 0;
+        for (int i = offset; i < offset + length; i++) {
+            indexBytes += Varint.size(Varint.zigZag(squares[i] - previous));
+            previous = squares[i];
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(DELTA_HEADER_BYTES + Varint.size(length) + indexBytes + (length + 1) / 2);
+        buffer.put(TYPE_DELTA)
+                .put((byte) status())
+                .putLong(version + 1);
+        Varint.put(buffer, length);
+        previous = 0;
+        for (int i = offset; i < offset + length; i++) {
+            Varint.put(buffer, Varint.zigZag(squares[i] - previous));
+            previous = squares[i];
+        }
+        for (int i = offset; i < offset + length; i += 2) {
+            int high = i + 1 < offset + length ? visibleValue(board, squares[i + 1]) : 0;
+            buffer.put((byte) (visibleValue(board, squares[i]) | high << 4));
+        }
+
+        version++;
+        ByteBuffer delta = buffer.flip().asReadOnlyBuffer();
+        deltas[(int) (version % deltas.length)] = delta;
+        return delta.duplicate();
+    }
+
+    /**
+     * Raises the version without a delta and drops the retained deltas, so every client catches up with a snapshot.
+     * This is for changes that are not described square by square, such as an undo or a new game.
+     */
+    public void invalidate() {
+        version++;
+        retainedFrom = version;
+        Arrays.fill(deltas, null);
+    }
+
+    /**
+     * @return the messages that bring a client from its version to the current one: nothing if it is up to date,
+     * the missed deltas if they are all retained, and a snapshot otherwise
+     */
+    public List<ByteBuffer> catchUp(long clientVersion) {
+        if (clientVersion == version) {
+            return Collections.emptyList();
+        }
+        if (clientVersion < retainedFrom || clientVersion > version || version - clientVersion > deltas.length) {
+            return Collections.singletonList(snapshot());
+        }
+
+        List<ByteBuffer> missed = new ArrayList<>((int) (version - clientVersion));
+        for (long v = clientVersion + 1; v <= version; v++) {
+            missed.add(deltas[(int) (v % deltas.length)].duplicate());
+        }
+        return missed;
+    }
+
+    private int status() {
+        if (grid.isGameWon()) {
+            return STATUS_WON;
+        }
+        return grid.isGameOver() ? STATUS_LOST : STATUS_PLAYING;
+    }
+
+    /**
+     * @return what a player sees of a square: 0-8 for a revealed number, or HIDDEN, FLAGGED or MINE
+     */
+    public static int visibleValue(MinesweeperBoard board, int index) {
+        if (board.isRevealed(index)) {
+            return board.isMine(index) ? MINE : board.getAdjacentMines(index);
+        }
+        return board.isFlagged(index) ? FLAGGED : HIDDEN;
+    }
+
+    /**
+     * @return the run-length encoded size of the grid, or the limit as soon as it is reached
+     */
+    private static int runLengthSize(MinesweeperBoard board, int limit) {
+        int size = 0;
+        int index = 0;
+        int squareCount = board.getSquareCount();
+        while (index < squareCount && size < limit) {
+            int value = visibleValue(board, index);
+            int start = index;
+            while (++index < squareCount && visibleValue(board, index) == value) {
+                // Extend the run
+            }
+            int length = index - start;
+            size += length <= MAX_SHORT_RUN ? 1 : 1 + Varint.size(length - MAX_SHORT_RUN - 1);
+        }
+        return Math.min(size, limit);
+    }
+
+    private static void writeRuns(MinesweeperBoard board, ByteBuffer buffer) {
+        int index = 0;
+        int squareCount = board.getSquareCount();
+        while (index < squareCount) {
+            int value = visibleValue(board, index);
+            int start = index;
+            while (++index < squareCount && visibleValue(board, index) == value) {
+                // Extend the run
+            }
+            int length = index - start;
+            if (length <= MAX_SHORT_RUN) {
+                buffer.put((byte) (value | (length - 1) << 4));
+            } else {
+                buffer.put((byte) (value | MAX_SHORT_RUN << 4));
+                Varint.put(buffer, length - MAX_SHORT_RUN - 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.gic.minesweeper.wire;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This writes and reads unsigned integers seven bits per byte, low bits first, with the top bit set on every
+ * byte but the last. Signed values are zig-zag mapped first so small negative numbers also stay short.
+ */
+final class Varint {
+
+    static final int MAX_BYTES = 5;
+
+    private Varint() {
+    }
+
+    static void put(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static int get(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint is longer than " + MAX_BYTES + " bytes");
+    }
+
+    static int size(int value) {
+        int bytes = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            bytes++;
+        }
+        return bytes;
+    }
+
+    static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
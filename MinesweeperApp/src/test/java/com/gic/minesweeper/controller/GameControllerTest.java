@@ -2,6 +2,7 @@ package com.gic.minesweeper.controller;
 
 import com.gic.minesweeper.model.MinesweeperGridCell;
 import com.gic.minesweeper.service.MinesweeperGridService;
+import com.gic.minesweeper.service.MoveBatchResult;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -47,8 +48,8 @@ public class GameControllerTest {
             MinesweeperGridService minesweeperGrid = (MinesweeperGridService) gridField.get(game);
 
             MinesweeperGridCell minesweeperGridCell = minesweeperGrid.getCell(0, 0);
-            setPrivateField(minesweeperGridCell, "mine", false);
-            setPrivateField(minesweeperGridCell, "adjacentMines", 2);
+            minesweeperGridCell.setMine(false);
+            minesweeperGridCell.setAdjacentMines(2);
 
             String result = game.selectSquare("A1");
             Assert.assertTrue(result.contains("2 adjacent mines"));
@@ -81,8 +82,8 @@ public class GameControllerTest {
             MinesweeperGridService minesweeperGrid = (MinesweeperGridService) gridField.get(game);
 
             MinesweeperGridCell minesweeperGridCell = minesweeperGrid.getCell(0, 0);
-            setPrivateField(minesweeperGridCell, "mine", false);
-            setPrivateField(minesweeperGridCell, "revealed", true);
+            minesweeperGridCell.setMine(false);
+            minesweeperGridCell.reveal();
 
             String result = game.selectSquare("A1");
             Assert.assertTrue(result.contains("already revealed"));
@@ -101,7 +102,7 @@ public class GameControllerTest {
             MinesweeperGridService minesweeperGrid = (MinesweeperGridService) gridField.get(game);
 
             MinesweeperGridCell minesweeperGridCell = minesweeperGrid.getCell(0, 0);
-            setPrivateField(minesweeperGridCell, "mine", true);
+            minesweeperGridCell.setMine(true);
 
             String result = game.selectSquare("A1");
             Assert.assertTrue(result.contains("detonated a mine"));
@@ -126,11 +127,10 @@ public class GameControllerTest {
                 for (int col = 0; col < 4; col++) {
                     MinesweeperGridCell minesweeperGridCell = minesweeperGrid.getCell(row, col);
                     if (row == 0 && col == 0) {
-                        setPrivateField(minesweeperGridCell, "mine", false);
-                        setPrivateField(minesweeperGridCell, "revealed", false);
+                        minesweeperGridCell.setMine(false);
                     } else {
                         if (!minesweeperGridCell.isMine()) {
-                            setPrivateField(minesweeperGridCell, "revealed", true);
+                            minesweeperGridCell.reveal();
                         }
                     }
                 }
@@ -146,9 +146,57 @@ public class GameControllerTest {
         }
     }
 
-    private void setPrivateField(Object object, String fieldName, Object value) throws Exception {
-        Field field = object.getClass().getDeclaredField(fieldName);
-        field.setAccessible(true);
-        field.set(object, value);
+    @Test
+    public void testNewGame() {
+        game.selectSquare("A1");
+        MinesweeperGridService minesweeperGrid = game.getGrid();
+
+        game.newGame(4, 2, 7L);
+        Assert.assertSame(minesweeperGrid, game.getGrid());
+        Assert.assertFalse(game.isGameOver());
+        Assert.assertEquals(2, minesweeperGrid.getTotalMines());
+        Assert.assertTrue(game.gridView().contains("A _ _ _ _"));
+
+        game.newGame(6, 4, 7L);
+        String display = game.gridView();
+        Assert.assertTrue(display.contains("1 2 3 4 5 6"));
+        Assert.assertTrue(display.contains("F _ _ _ _ _ _"));
+    }
+
+    @Test
+    public void testSelectSquares() {
+        MinesweeperGridService minesweeperGrid = game.getGrid();
+        int[] moves = new int[16];
+        for (int index = 0; index < 16; index++) {
+            moves[index] = index;
+        }
+
+        MoveBatchResult result = new MoveBatchResult();
+        game.selectSquares(moves, 0, moves.length, result);
+
+        Assert.assertTrue(game.isGameOver());
+        Assert.assertEquals(minesweeperGrid.isGameWon() ? MoveBatchResult.STATUS_WON : MoveBatchResult.STATUS_LOST,
+                result.getStatus());
+        Assert.assertEquals(minesweeperGrid.isGameWon() ? MoveBatchResult.MOVE_REVEALED : MoveBatchResult.MOVE_DETONATED,
+                result.getMoveStatus(result.getMoveCount() - 1));
+    }
+
+    @Test
+    public void testUndo() {
+        Assert.assertFalse(game.isUndoEnabled());
+        Assert.assertTrue(game.undo().contains("not enabled"));
+        game.enableUndo();
+        Assert.assertTrue(game.undo().contains("no move to undo"));
+
+        MinesweeperGridCell minesweeperGridCell = game.getGrid().getCell(0, 0);
+        minesweeperGridCell.setMine(true);
+        game.selectSquare("A1");
+        Assert.assertTrue(game.isGameOver());
+
+        Assert.assertTrue(game.undo().contains("undone"));
+        Assert.assertFalse(game.isGameOver());
+        Assert.assertFalse(minesweeperGridCell.isRevealed());
+        Assert.assertTrue(game.redo().contains("redone"));
+        Assert.assertTrue(game.isGameOver());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,96 @@
+package com.gic.minesweeper.controller;
+
+import com.gic.minesweeper.model.BoardTopology;
+import com.gic.minesweeper.model.MinesweeperBoard;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.StringWriter;
+
+public class GridRendererTest {
+
+    private MinesweeperBoard board;
+    private GridRenderer gridRenderer;
+
+    @Before
+    public void setUp() {
+        board = new MinesweeperBoard(3);
+        board.setAdjacentMines(board.indexOf(1, 1), 2);
+        gridRenderer = new GridRenderer(board);
+    }
+
+    @Test
+    public void testInitialFrame() {
+        Assert.assertEquals("  1 2 3 \nA _ _ _ \nB _ _ _ \nC _ _ _ \n", gridRenderer.renderFrame());
+    }
+
+    @Test
+    public void testHeaderAlignedWithTwoLetterLabels() {
+        MinesweeperBoard tall = new MinesweeperBoard(BoardTopology.rectangular(27, 3));
+        String[] lines = new GridRenderer(tall).renderFrame().split("\n");
+
+        Assert.assertEquals(28, lines.length);
+        Assert.assertEquals("   1 2 3 ", lines[0]);
+        Assert.assertEquals("A  _ _ _ ", lines[1]);
+        Assert.assertEquals("AA _ _ _ ", lines[27]);
+    }
+
+    @Test
+    public void testFrameAfterReveal() {
+        board.reveal(board.indexOf(1, 1));
+        board.reveal(board.indexOf(2, 0));
+        Assert.assertEquals("  1 2 3 \nA _ _ _ \nB _ 2 _ \nC 0 _ _ \n", gridRenderer.renderFrame());
+    }
+
+    @Test
+    public void testFlags() {
+        board.setFlagged(board.indexOf(0, 2), true);
+
+        StringWriter writer = new StringWriter();
+        gridRenderer.writeChangedRows(writer);
+        Assert.assertEquals("A _ _ F \n", writer.toString());
+
+        board.setFlagged(board.indexOf(0, 2), false);
+        Assert.assertEquals("  1 2 3 \nA _ _ _ \nB _ _ _ \nC _ _ _ \n", gridRenderer.renderFrame());
+    }
+
+    @Test
+    public void testChangedRows() {
+        board.reveal(board.indexOf(1, 1));
+
+        StringWriter writer = new StringWriter();
+        gridRenderer.writeChangedRows(writer);
+        Assert.assertEquals("B _ 2 _ \n", writer.toString());
+
+        writer = new StringWriter();
+        gridRenderer.writeChangedRows(writer);
+        Assert.assertEquals("", writer.toString());
+    }
+
+    @Test
+    public void testChangedSquares() {
+        board.reveal(board.indexOf(1, 1));
+        board.reveal(board.indexOf(2, 2));
+
+        StringWriter writer = new StringWriter();
+        gridRenderer.writeChangedSquares(writer);
+        Assert.assertEquals("B2 2\nC3 0\n", writer.toString());
+        Assert.assertEquals("  1 2 3 \nA _ _ _ \nB _ 2 _ \nC _ _ 0 \n", gridRenderer.renderFrame());
+    }
+
+    @Test
+    public void testMultiLetterRowLabels() {
+        MinesweeperBoard largeBoard = new MinesweeperBoard(28);
+        largeBoard.reveal(largeBoard.indexOf(27, 0));
+        String frame = new GridRenderer(largeBoard).renderFrame();
+
+        Assert.assertTrue(frame.contains("\nA  _ _"));
+        Assert.assertTrue(frame.contains("\nAB 0 _"));
+
+        largeBoard.reveal(largeBoard.indexOf(26, 1));
+        StringWriter writer = new StringWriter();
+        new GridRenderer(largeBoard).writeChangedSquares(writer);
+        Assert.assertEquals("", writer.toString());
+    }
+}
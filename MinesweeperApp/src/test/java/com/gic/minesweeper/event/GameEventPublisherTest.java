@@ -0,0 +1,248 @@
+package com.gic.minesweeper.event;
+
+import com.gic.minesweeper.model.MinesweeperBoard;
+import com.gic.minesweeper.service.AdjacencyCounter;
+import com.gic.minesweeper.service.MinesweeperGridService;
+import com.gic.minesweeper.wire.BoardStateEncoder;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+public class GameEventPublisherTest {
+
+    private MinesweeperGridService grid;
+
+    @Before
+    public void setUp() {
+        MinesweeperBoard board = new MinesweeperBoard(8);
+        board.setMine(0, true);
+        AdjacencyCounter.countAdjacentMines(board);
+        grid = new MinesweeperGridService(board, 1, false, false);
+    }
+
+    @Test
+    public void testRevealAndWinEvents() {
+        GameEventPublisher publisher = new GameEventPublisher(Runnable::run, 16,
+                GameEventPublisher.BackpressurePolicy.DROP);
+        grid.setEventPublisher(publisher);
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        publisher.subscribe(subscriber);
+
+        grid.revealCell(0, 1);
+        grid.revealCell(0, 1);
+        grid.revealCell(7, 7);
+
+        Assert.assertEquals(3, subscriber.events.size());
+        RevealEvent first = (RevealEvent) subscriber.events.get(0);
+        Assert.assertEquals(1, first.getSequence());
+        Assert.assertEquals(1, first.getRevealedCount());
+        Assert.assertEquals(1, first.getRevealedSquare(0));
+        Assert.assertEquals(1, first.getValue(0));
+        Assert.assertEquals(62, ((RevealEvent) subscriber.events.get(1)).getRevealedCount());
+        Assert.assertTrue(subscriber.events.get(2) instanceof GameWonEvent);
+        Assert.assertEquals(3, subscriber.events.get(2).getSequence());
+    }
+
+    @Test
+    public void testLossEvent() {
+        GameEventPublisher publisher = new GameEventPublisher(Runnable::run, 16,
+                GameEventPublisher.BackpressurePolicy.DROP);
+        grid.setEventPublisher(publisher);
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        publisher.subscribe(subscriber);
+
+        grid.revealCell(0, 0);
+
+        Assert.assertEquals(BoardStateEncoder.MINE, ((RevealEvent) subscriber.events.get(0)).getValue(0));
+        Assert.assertEquals(0, ((GameLostEvent) subscriber.events.get(1)).getSquare());
+    }
+
+    @Test
+    public void testDropPolicy() {
+        GameEventPublisher publisher = new GameEventPublisher(Runnable::run, 2,
+                GameEventPublisher.BackpressurePolicy.DROP);
+        grid.setEventPublisher(publisher);
+        RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        publisher.subscribe(subscriber);
+
+        grid.revealCell(0, 1);
+        grid.revealCell(1, 0);
+        grid.revealCell(1, 1);
+        Assert.assertEquals(1, publisher.getDroppedEventCount());
+
+        subscriber.subscription.request(10);
+        Assert.assertEquals(2, subscriber.events.size());
+        Assert.assertEquals(2, subscriber.events.get(1).getSequence());
+    }
+
+    @Test
+    public void testCoalescePolicy() {
+        GameEventPublisher publisher = new GameEventPublisher(Runnable::run, 2,
+                GameEventPublisher.BackpressurePolicy.COALESCE);
+        grid.setEventPublisher(publisher);
+        RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        publisher.subscribe(subscriber);
+
+        grid.revealCell(0, 1);
+        grid.revealCell(1, 0);
+        grid.revealCell(1, 1);
+        subscriber.subscription.request(10);
+
+        Assert.assertEquals(1, subscriber.events.size());
+        SnapshotEvent snapshot = (SnapshotEvent) subscriber.events.get(0);
+        Assert.assertEquals(3, snapshot.getSequence());
+        Assert.assertEquals(1, snapshot.getSquare(1, 1));
+        Assert.assertEquals(BoardStateEncoder.HIDDEN, snapshot.getSquare(0, 0));
+        Assert.assertEquals(0, publisher.getDroppedEventCount());
+    }
+
+    @Test
+    public void testBlockPolicyDeliversEveryEvent() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            GameEventPublisher publisher = new GameEventPublisher(executor, 1,
+                    GameEventPublisher.BackpressurePolicy.BLOCK);
+            grid.setEventPublisher(publisher);
+            RecordingSubscriber subscriber = new RecordingSubscriber(1) {
+                @Override
+                public void onNext(GameEvent event) {
+                    super.onNext(event);
+                    subscription.request(1);
+                }
+            };
+            publisher.subscribe(subscriber);
+
+            grid.revealCell(0, 1);
+            grid.revealCell(1, 0);
+            grid.revealCell(7, 7);
+            publisher.close();
+
+            Assert.assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+            Assert.assertEquals(4, subscriber.events.size());
+            for (int i = 0; i < 4; i++) {
+                Assert.assertEquals(i + 1, subscriber.events.get(i).getSequence());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testFanOutToManySubscribers() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            GameEventPublisher publisher = new GameEventPublisher(executor, 4,
+                    GameEventPublisher.BackpressurePolicy.COALESCE);
+            grid.setEventPublisher(publisher);
+            List<RecordingSubscriber> subscribers = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+                subscribers.add(subscriber);
+                publisher.subscribe(subscriber);
+            }
+
+            grid.revealCell(0, 1);
+            grid.revealCell(7, 7);
+            publisher.close();
+
+            for (RecordingSubscriber subscriber : subscribers) {
+                Assert.assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+                GameEvent last = subscriber.events.get(subscriber.events.size() - 1);
+                Assert.assertTrue(last instanceof GameWonEvent
+                        || (last instanceof SnapshotEvent && ((SnapshotEvent) last).isGameWon()));
+            }
+            Assert.assertFalse(publisher.hasSubscribers());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testUndoPublishesSnapshot() {
+        GameEventPublisher publisher = new GameEventPublisher(Runnable::run, 16,
+                GameEventPublisher.BackpressurePolicy.DROP);
+        grid.setEventPublisher(publisher);
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        publisher.subscribe(subscriber);
+
+        grid.enableHistory();
+        grid.revealCell(0, 1);
+        grid.undo();
+
+        SnapshotEvent snapshot = (SnapshotEvent) subscriber.events.get(1);
+        Assert.assertEquals(BoardStateEncoder.HIDDEN, snapshot.getSquare(0, 1));
+    }
+
+    @Test
+    public void testCancel() {
+        GameEventPublisher publisher = new GameEventPublisher(Runnable::run, 16,
+                GameEventPublisher.BackpressurePolicy.DROP);
+        grid.setEventPublisher(publisher);
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.cancel();
+        grid.revealCell(0, 1);
+
+        Assert.assertFalse(publisher.hasSubscribers());
+        Assert.assertTrue(subscriber.events.isEmpty());
+    }
+
+    @Test
+    public void testNonPositiveRequestIsAnError() {
+        GameEventPublisher publisher = new GameEventPublisher(Runnable::run, 16,
+                GameEventPublisher.BackpressurePolicy.DROP);
+        RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(0);
+
+        Assert.assertTrue(subscriber.error instanceof IllegalArgumentException);
+        Assert.assertFalse(publisher.hasSubscribers());
+    }
+
+    private static class RecordingSubscriber implements Flow.Subscriber<GameEvent> {
+
+        final List<GameEvent> events = new ArrayList<>();
+        final CountDownLatch done = new CountDownLatch(1);
+        final long initialRequest;
+        Flow.Subscription subscription;
+        Throwable error;
+
+        RecordingSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest > 0) {
+                subscription.request(initialRequest);
+            }
+        }
+
+        @Override
+        public void onNext(GameEvent event) {
+            events.add(event);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+    }
+}
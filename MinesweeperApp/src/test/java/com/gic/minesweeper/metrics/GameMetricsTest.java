@@ -0,0 +1,128 @@
+package com.gic.minesweeper.metrics;
+
+import com.gic.minesweeper.controller.GameController;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.List;
+
+public class GameMetricsTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Before
+    public void setUp() {
+        GameMetrics.reset();
+    }
+
+    @After
+    public void tearDown() {
+        GameMetrics.setEnabled(false);
+        GameMetrics.reset();
+    }
+
+    @Test
+    public void testDisabledRecordsNothing() {
+        GameController game = new GameController(5, 3, 1L);
+        game.selectSquare("A1");
+        game.gridView();
+
+        Assert.assertEquals(0, GameMetrics.getSelectSquareNanos().getCount());
+        Assert.assertEquals(0, GameMetrics.getCascadeSizes().getCount());
+        Assert.assertEquals(0, GameMetrics.getBoardConstructionNanos().getCount());
+        Assert.assertEquals(0, GameMetrics.getRenderNanos().getCount());
+    }
+
+    @Test
+    public void testEnabledRecordsMoves() {
+        GameMetrics.setEnabled(true);
+        GameController game = new GameController(5, 3, 1L);
+        game.selectSquare("A1");
+        game.selectSquare("A1");
+        game.gridView();
+
+        Assert.assertEquals(1, GameMetrics.getBoardConstructionNanos().getCount());
+        Assert.assertEquals(2, GameMetrics.getSelectSquareNanos().getCount());
+        Assert.assertEquals(1, GameMetrics.getCascadeSizes().getCount());
+        Assert.assertEquals(1, GameMetrics.getRenderNanos().getCount());
+    }
+
+    @Test
+    public void testHistogramPercentiles() {
+        Histogram histogram = new Histogram();
+        for (int value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+
+        Assert.assertEquals(100, histogram.getCount());
+        Assert.assertEquals(50.5, histogram.getMean(), 0.001);
+        Assert.assertEquals(63, histogram.getPercentile(50));
+        Assert.assertEquals(127, histogram.getPercentile(99));
+    }
+
+    @Test
+    public void testHistogramLargestValues() {
+        Histogram histogram = new Histogram();
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(-5);
+
+        Assert.assertEquals(0, histogram.getPercentile(50));
+        Assert.assertEquals(Long.MAX_VALUE, histogram.getPercentile(100));
+    }
+
+    @Test
+    public void testDisabledEventsAreNotAllocated() {
+        Assert.assertNull(SelectSquareEvent.start());
+        Assert.assertNull(RenderEvent.start());
+        Assert.assertNull(BoardConstructionEvent.start());
+    }
+
+    @Test
+    public void testMXBean() throws Exception {
+        GameMetrics.register();
+        GameMetrics.register();
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(GameMetrics.OBJECT_NAME);
+        server.setAttribute(name, new Attribute("Enabled", true));
+        new GameController(4, 2, 3L).selectSquare("B2");
+
+        Assert.assertEquals(true, server.getAttribute(name, "Enabled"));
+        Assert.assertEquals(1L, server.getAttribute(name, "SelectSquareCount"));
+        Assert.assertEquals(1L, server.getAttribute(name, "BoardConstructionCount"));
+    }
+
+    @Test
+    public void testFlightRecorderEvents() throws Exception {
+        Path file = temporaryFolder.newFile("game.jfr").toPath();
+        try (Recording recording = new Recording()) {
+            recording.enable(SelectSquareEvent.class);
+            recording.enable(BoardConstructionEvent.class);
+            recording.start();
+
+            new GameController(6, 4, 5L).selectSquare("C3");
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Assert.assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals("com.gic.minesweeper.SelectSquare")
+                && event.getString("square").equals("C3")));
+        Assert.assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals("com.gic.minesweeper.BoardConstruction")
+                && event.getInt("mines") == 4));
+    }
+}
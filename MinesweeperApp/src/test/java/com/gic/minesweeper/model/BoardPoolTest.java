@@ -0,0 +1,56 @@
+package com.gic.minesweeper.model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class BoardPoolTest {
+
+    @Test
+    public void testReleasedBoardIsReusedCleared() {
+        BoardPool pool = new BoardPool(2, 1000);
+        MinesweeperBoard board = pool.acquire(5);
+        board.setMine(0, true);
+        board.reveal(1);
+
+        pool.release(board);
+        Assert.assertEquals(1, pool.getPooledBoardCount(5));
+
+        MinesweeperBoard reused = pool.acquire(5);
+        Assert.assertSame(board, reused);
+        Assert.assertFalse(reused.isMine(0));
+        Assert.assertFalse(reused.isRevealed(1));
+        Assert.assertEquals(25, reused.getHiddenSafeSquares());
+        Assert.assertEquals(0, pool.getPooledBoardCount(5));
+    }
+
+    @Test
+    public void testBoardsAreKeyedBySize() {
+        BoardPool pool = new BoardPool(2, 1000);
+        MinesweeperBoard board = pool.acquire(5);
+        pool.release(board);
+
+        Assert.assertNotSame(board, pool.acquire(6));
+        Assert.assertEquals(1, pool.getPooledBoardCount(5));
+    }
+
+    @Test
+    public void testPoolIsBounded() {
+        BoardPool pool = new BoardPool(2, 50);
+        pool.release(new MinesweeperBoard(4));
+        pool.release(new MinesweeperBoard(4));
+        pool.release(new MinesweeperBoard(4));
+        Assert.assertEquals(2, pool.getPooledBoardCount(4));
+
+        pool.release(new MinesweeperBoard(5));
+        Assert.assertEquals(0, pool.getPooledBoardCount(5));
+    }
+
+    @Test
+    public void testDirectBoardsAreNotPooled() {
+        BoardPool pool = new BoardPool(2, 1000);
+        pool.release(new MinesweeperBoard(4, ByteBuffer.allocateDirect(16), 16));
+        Assert.assertEquals(0, pool.getPooledBoardCount(4));
+    }
+}
@@ -0,0 +1,104 @@
+package com.gic.minesweeper.model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class BoardTopologyTest {
+
+    @Test
+    public void testRectangularNeighbours() {
+        BoardTopology topology = BoardTopology.rectangular(3, 4);
+        int[] neighbours = new int[topology.getMaxNeighbours()];
+
+        Assert.assertArrayEquals(new int[]{1, 4, 5}, sorted(neighbours, topology.neighbours(0, neighbours)));
+        Assert.assertArrayEquals(new int[]{0, 1, 2, 4, 6, 8, 9, 10},
+                sorted(neighbours, topology.neighbours(5, neighbours)));
+        Assert.assertArrayEquals(new int[]{6, 7, 10}, sorted(neighbours, topology.neighbours(11, neighbours)));
+    }
+
+    @Test
+    public void testToroidalNeighboursWrap() {
+        BoardTopology topology = BoardTopology.toroidal(4, 4);
+        int[] neighbours = new int[topology.getMaxNeighbours()];
+
+        Assert.assertArrayEquals(new int[]{1, 3, 4, 5, 7, 12, 13, 15},
+                sorted(neighbours, topology.neighbours(0, neighbours)));
+    }
+
+    @Test
+    public void testToroidalNeighboursOnNarrowBoard() {
+        BoardTopology topology = BoardTopology.toroidal(2, 3);
+        int[] neighbours = new int[topology.getMaxNeighbours()];
+
+        Assert.assertArrayEquals(new int[]{1, 2, 3, 4, 5}, sorted(neighbours, topology.neighbours(0, neighbours)));
+    }
+
+    @Test
+    public void testHexagonalNeighbours() {
+        BoardTopology topology = BoardTopology.hexagonal(4, 4);
+        int[] neighbours = new int[topology.getMaxNeighbours()];
+
+        Assert.assertEquals(6, topology.getMaxNeighbours());
+        // Odd rows are shifted to the right, so they touch the column to their right in the rows around them,
+        // and even rows touch the column to their left
+        Assert.assertArrayEquals(new int[]{1, 2, 4, 6, 9, 10}, sorted(neighbours, topology.neighbours(5, neighbours)));
+        Assert.assertArrayEquals(new int[]{4, 5, 8, 10, 12, 13},
+                sorted(neighbours, topology.neighbours(9, neighbours)));
+        Assert.assertArrayEquals(new int[]{1, 4}, sorted(neighbours, topology.neighbours(0, neighbours)));
+    }
+
+    @Test
+    public void testNeighboursAreSymmetric() {
+        for (BoardTopology topology : new BoardTopology[]{BoardTopology.rectangular(5, 7),
+                BoardTopology.toroidal(6, 3), BoardTopology.hexagonal(7, 5), BoardTopology.hexagonal(1, 4)}) {
+            int[] neighbours = new int[topology.getMaxNeighbours()];
+            int[] back = new int[topology.getMaxNeighbours()];
+            for (int index = 0; index < topology.getSquareCount(); index++) {
+                int count = topology.neighbours(index, neighbours);
+                for (int i = 0; i < count; i++) {
+                    int backCount = topology.neighbours(neighbours[i], back);
+                    Assert.assertTrue(topology + " " + index,
+                            Arrays.binarySearch(sorted(back, backCount), index) >= 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRowAndColumnLookupMatchesIndexLookup() {
+        for (BoardTopology topology : new BoardTopology[]{BoardTopology.rectangular(5, 70),
+                BoardTopology.toroidal(6, 3), BoardTopology.hexagonal(7, 9), BoardTopology.rectangular(2, 5)}) {
+            int[] byIndex = new int[topology.getMaxNeighbours()];
+            int[] byPosition = new int[topology.getMaxNeighbours()];
+            for (int row = 0; row < topology.getRows(); row++) {
+                for (int col = 0; col < topology.getCols(); col++) {
+                    int count = topology.neighbours(row * topology.getCols() + col, byIndex);
+                    Assert.assertEquals(count, topology.neighbours(row, col, byPosition));
+                    Assert.assertArrayEquals(Arrays.copyOf(byIndex, count), Arrays.copyOf(byPosition, count));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testEquality() {
+        Assert.assertEquals(BoardTopology.rectangular(3, 4), BoardTopology.rectangular(3, 4));
+        Assert.assertNotEquals(BoardTopology.rectangular(3, 4), BoardTopology.rectangular(4, 3));
+        Assert.assertNotEquals(BoardTopology.rectangular(3, 4), BoardTopology.toroidal(3, 4));
+        Assert.assertTrue(BoardTopology.rectangular(4, 4).isSquareRectangular());
+        Assert.assertFalse(BoardTopology.hexagonal(4, 4).isSquareRectangular());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSize() {
+        BoardTopology.rectangular(0, 4);
+    }
+
+    private static int[] sorted(int[] neighbours, int count) {
+        int[] result = Arrays.copyOf(neighbours, count);
+        Arrays.sort(result);
+        return result;
+    }
+}
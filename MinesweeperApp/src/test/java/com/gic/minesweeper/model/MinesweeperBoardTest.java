@@ -0,0 +1,169 @@
+package com.gic.minesweeper.model;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MinesweeperBoardTest {
+
+    private MinesweeperBoard board;
+
+    @Before
+    public void setUp() {
+        board = new MinesweeperBoard(4);
+    }
+
+    @Test
+    public void testInitialState() {
+        Assert.assertEquals(4, board.getSize());
+        Assert.assertEquals(16, board.getSquareCount());
+        for (int index = 0; index < board.getSquareCount(); index++) {
+            Assert.assertFalse(board.isMine(index));
+            Assert.assertFalse(board.isRevealed(index));
+            Assert.assertEquals(0, board.getAdjacentMines(index));
+        }
+    }
+
+    @Test
+    public void testIndexOf() {
+        Assert.assertEquals(0, board.indexOf(0, 0));
+        Assert.assertEquals(6, board.indexOf(1, 2));
+        Assert.assertEquals(15, board.indexOf(3, 3));
+    }
+
+    @Test
+    public void testFlagsAreIndependent() {
+        int index = board.indexOf(2, 1);
+        board.setAdjacentMines(index, 8);
+        board.setMine(index, true);
+        board.reveal(index);
+
+        Assert.assertTrue(board.isMine(index));
+        Assert.assertTrue(board.isRevealed(index));
+        Assert.assertEquals(8, board.getAdjacentMines(index));
+
+        board.setMine(index, false);
+        Assert.assertFalse(board.isMine(index));
+        Assert.assertTrue(board.isRevealed(index));
+        Assert.assertEquals(8, board.getAdjacentMines(index));
+    }
+
+    @Test
+    public void testIncrementAdjacentMines() {
+        int index = board.indexOf(0, 3);
+        board.incrementAdjacentMines(index);
+        board.incrementAdjacentMines(index);
+        Assert.assertEquals(2, board.getAdjacentMines(index));
+    }
+
+    @Test
+    public void testCellViewSharesStorage() {
+        MinesweeperGridCell minesweeperGridCell = new MinesweeperGridCell(board, board.indexOf(1, 1));
+        minesweeperGridCell.setMine(true);
+        minesweeperGridCell.reveal();
+
+        Assert.assertTrue(board.isMine(5));
+        Assert.assertTrue(board.isRevealed(5));
+    }
+
+    @Test
+    public void testHiddenSafeSquares() {
+        Assert.assertEquals(16, board.getHiddenSafeSquares());
+
+        board.setMine(0, true);
+        board.setMine(0, true);
+        Assert.assertEquals(15, board.getHiddenSafeSquares());
+
+        board.reveal(1);
+        board.reveal(1);
+        Assert.assertEquals(14, board.getHiddenSafeSquares());
+
+        board.reveal(0);
+        Assert.assertEquals(14, board.getHiddenSafeSquares());
+
+        board.setMine(2, true);
+        board.setMine(2, false);
+        Assert.assertEquals(14, board.getHiddenSafeSquares());
+    }
+
+    @Test
+    public void testDirtyRows() {
+        MinesweeperBoard largeBoard = new MinesweeperBoard(200);
+        Assert.assertEquals(-1, largeBoard.nextDirtyRow(0));
+
+        largeBoard.reveal(largeBoard.indexOf(3, 7));
+        largeBoard.reveal(largeBoard.indexOf(130, 0));
+        Assert.assertEquals(3, largeBoard.nextDirtyRow(0));
+        Assert.assertEquals(130, largeBoard.nextDirtyRow(4));
+        Assert.assertEquals(-1, largeBoard.nextDirtyRow(131));
+
+        largeBoard.clearDirtyRows();
+        Assert.assertEquals(-1, largeBoard.nextDirtyRow(0));
+    }
+
+    @Test
+    public void testClear() {
+        board.setMine(0, true);
+        board.setAdjacentMines(1, 1);
+        board.reveal(1);
+        board.clearDirtyRows();
+
+        board.clear();
+
+        Assert.assertFalse(board.isMine(0));
+        Assert.assertFalse(board.isRevealed(1));
+        Assert.assertEquals(0, board.getAdjacentMines(1));
+        Assert.assertEquals(16, board.getHiddenSafeSquares());
+        Assert.assertEquals(0, board.nextDirtyRow(0));
+    }
+
+    @Test
+    public void testHide() {
+        board.setMine(0, true);
+        board.reveal(0);
+        board.reveal(1);
+        board.clearDirtyRows();
+
+        board.hide(1);
+        board.hide(1);
+        board.hide(0);
+        Assert.assertFalse(board.isRevealed(0));
+        Assert.assertFalse(board.isRevealed(1));
+        Assert.assertEquals(15, board.getHiddenSafeSquares());
+        Assert.assertEquals(0, board.nextDirtyRow(0));
+    }
+
+    @Test
+    public void testFlags() {
+        board.setFlagged(5, true);
+        board.setFlagged(5, true);
+        board.setFlagged(6, true);
+
+        Assert.assertTrue(board.isFlagged(5));
+        Assert.assertFalse(board.isFlagged(4));
+        Assert.assertEquals(2, board.getFlagCount());
+        Assert.assertEquals(2, board.getAdjacentFlags(1));
+        Assert.assertEquals(1, board.getAdjacentFlags(6));
+        Assert.assertEquals(0, board.getAdjacentFlags(12));
+        Assert.assertEquals(1, board.getAdjacentFlags(0));
+
+        board.setFlagged(5, false);
+        Assert.assertEquals(1, board.getAdjacentFlags(1));
+        Assert.assertEquals(0, board.getAdjacentFlags(6));
+
+        board.clear();
+        Assert.assertFalse(board.isFlagged(6));
+        Assert.assertEquals(0, board.getFlagCount());
+        Assert.assertEquals(0, board.getAdjacentFlags(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidAdjacentMines() {
+        board.setAdjacentMines(0, 9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSize() {
+        new MinesweeperBoard(0);
+    }
+}
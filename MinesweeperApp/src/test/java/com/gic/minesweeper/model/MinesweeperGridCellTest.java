@@ -10,7 +10,7 @@ public class MinesweeperGridCellTest {
     
     @Before
     public void setUp() {
-        minesweeperGridCell = new MinesweeperGridCell();
+        minesweeperGridCell = new MinesweeperGridCell(new MinesweeperBoard(2), 0);
     }
     
     @Test
@@ -0,0 +1,115 @@
+package com.gic.minesweeper.persistence;
+
+import com.gic.minesweeper.service.MinesweeperGridService;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class GameStateStoreTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private MinesweeperGridService minesweeperGrid;
+    private Path path;
+
+    @Before
+    public void setUp() throws IOException {
+        minesweeperGrid = new MinesweeperGridService(30, 90, 17L);
+        for (int col = 0; col < 30; col++) {
+            if (!minesweeperGrid.getCell(0, col).isMine()) {
+                minesweeperGrid.revealCell(0, col);
+            }
+        }
+        path = temporaryFolder.newFile("game.msw").toPath();
+        GameStateStore.save(minesweeperGrid, path);
+    }
+
+    @Test
+    public void testFileSize() throws IOException {
+        Assert.assertEquals(GameStateStore.HEADER_BYTES + 30 * 30, Files.size(path));
+    }
+
+    @Test
+    public void testLoad() throws IOException {
+        assertSameGame(minesweeperGrid, GameStateStore.load(path));
+    }
+
+    @Test
+    public void testOpenLazily() throws IOException {
+        MinesweeperGridService resumed = GameStateStore.open(path);
+        assertSameGame(minesweeperGrid, resumed);
+
+        int safeRow = 29;
+        int safeCol = 0;
+        while (resumed.getCell(safeRow, safeCol).isMine() || resumed.getCell(safeRow, safeCol).isRevealed()) {
+            safeCol++;
+        }
+        resumed.revealCell(safeRow, safeCol);
+
+        Assert.assertTrue(resumed.getCell(safeRow, safeCol).isRevealed());
+        Assert.assertFalse(GameStateStore.load(path).getCell(safeRow, safeCol).isRevealed());
+    }
+
+    @Test
+    public void testStatusFlags() throws IOException {
+        int col = 0;
+        while (!minesweeperGrid.getCell(29, col).isMine()) {
+            col++;
+        }
+        minesweeperGrid.revealCell(29, col);
+        GameStateStore.save(minesweeperGrid, path);
+
+        MinesweeperGridService loaded = GameStateStore.load(path);
+        Assert.assertTrue(loaded.isGameOver());
+        Assert.assertFalse(loaded.isGameWon());
+    }
+
+    @Test
+    public void testFlagsRoundTrip() throws IOException {
+        int[] flagged = {30 * 29, 30 * 29 + 7, 30 * 30 - 1};
+        for (int index : flagged) {
+            minesweeperGrid.setFlag(index / 30, index % 30, true);
+        }
+        GameStateStore.save(minesweeperGrid, path);
+        Assert.assertEquals(GameStateStore.HEADER_BYTES + 30 * 30 + flagged.length * Integer.BYTES, Files.size(path));
+
+        for (MinesweeperGridService resumed : new MinesweeperGridService[]{GameStateStore.load(path),
+                GameStateStore.open(path)}) {
+            assertSameGame(minesweeperGrid, resumed);
+            Assert.assertEquals(flagged.length, resumed.getBoard().getFlagCount());
+            for (int index : flagged) {
+                Assert.assertTrue(resumed.getBoard().isFlagged(index));
+                Assert.assertEquals(minesweeperGrid.getBoard().getAdjacentFlags(index - 1),
+                        resumed.getBoard().getAdjacentFlags(index - 1));
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidFile() throws IOException {
+        Path invalid = temporaryFolder.newFile("invalid.msw").toPath();
+        Files.write(invalid, new byte[64]);
+        GameStateStore.load(invalid);
+    }
+
+    private void assertSameGame(MinesweeperGridService expected, MinesweeperGridService actual) {
+        Assert.assertEquals(expected.getSize(), actual.getSize());
+        Assert.assertEquals(expected.getTotalMines(), actual.getTotalMines());
+        Assert.assertEquals(expected.getRemainingSafeSquares(), actual.getRemainingSafeSquares());
+        Assert.assertEquals(expected.isGameOver(), actual.isGameOver());
+        for (int row = 0; row < expected.getSize(); row++) {
+            for (int col = 0; col < expected.getSize(); col++) {
+                Assert.assertEquals(expected.getCell(row, col).isMine(), actual.getCell(row, col).isMine());
+                Assert.assertEquals(expected.getCell(row, col).isRevealed(), actual.getCell(row, col).isRevealed());
+                Assert.assertEquals(expected.getCell(row, col).getAdjacentMines(), actual.getCell(row, col).getAdjacentMines());
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.gic.minesweeper.persistence;
+
+import com.gic.minesweeper.controller.GameController;
+import com.gic.minesweeper.model.MinesweeperBoard;
+import com.gic.minesweeper.service.CoordinateCodec;
+import com.gic.minesweeper.service.MinesweeperGridService;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class MoveJournalTest {
+
+    private static final int SIZE = 20;
+    private static final int MINES = 40;
+    private static final long SEED = 99L;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path path;
+    private GameController game;
+    private int moves;
+
+    @Before
+    public void setUp() throws IOException {
+        path = temporaryFolder.newFile("game.journal").toPath();
+        game = new GameController(SIZE, MINES, SEED);
+
+        try (MoveJournal moveJournal = MoveJournal.create(path, SIZE, MINES, SEED)) {
+            game.recordMovesTo(moveJournal);
+            MinesweeperGridService minesweeperGrid = game.getGrid();
+            for (int row = 0; row < SIZE && !game.isGameOver(); row++) {
+                for (int col = 0; col < SIZE && !game.isGameOver(); col++) {
+                    if (!minesweeperGrid.getCell(row, col).isMine() && !minesweeperGrid.getCell(row, col).isRevealed()) {
+                        game.selectSquare(CoordinateCodec.format(row, col));
+                        moves++;
+                    }
+                }
+            }
+            Assert.assertEquals(moves, moveJournal.getMoveCount());
+        }
+    }
+
+    @Test
+    public void testJournalSize() throws IOException {
+        Assert.assertEquals(MoveJournal.HEADER_BYTES + (long) moves * MoveJournal.RECORD_BYTES, Files.size(path));
+    }
+
+    @Test
+    public void testReplayAllMoves() throws IOException {
+        MinesweeperGridService replayed = MoveJournalReplayer.replay(path);
+        Assert.assertTrue(replayed.isGameWon());
+        Assert.assertEquals(game.getGrid().getRemainingSafeSquares(), replayed.getRemainingSafeSquares());
+    }
+
+    @Test
+    public void testReplayPartially() throws IOException {
+        MinesweeperGridService replayed = MoveJournalReplayer.replay(path, 1);
+        Assert.assertFalse(replayed.isGameWon());
+        Assert.assertEquals(SIZE * SIZE - MINES - replayed.getLastRevealedCount(), replayed.getRemainingSafeSquares());
+    }
+
+    @Test
+    public void testTruncatedRecordIsIgnored() throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(path) - 3);
+        }
+
+        MinesweeperGridService replayed = MoveJournalReplayer.replay(path);
+        Assert.assertFalse(replayed.isGameWon());
+    }
+
+    @Test
+    public void testReplayWithFlagsAndChord() throws IOException {
+        GameController flagged = new GameController(SIZE, MINES, SEED);
+        MinesweeperGridService minesweeperGrid = flagged.getGrid();
+        MinesweeperBoard board = minesweeperGrid.getBoard();
+        Path other = temporaryFolder.newFile("flags.journal").toPath();
+        try (MoveJournal moveJournal = MoveJournal.create(other, SIZE, MINES, SEED)) {
+            flagged.recordMovesTo(moveJournal);
+
+            int empty = 0;
+            while (board.isMine(empty) || board.getAdjacentMines(empty) != 0) {
+                empty++;
+            }
+            int[] neighbours = new int[8];
+            board.getTopology().neighbours(empty, neighbours);
+            int neighbour = neighbours[0];
+            flagged.flagSquare(square(neighbour), true);
+            flagged.selectSquare(square(empty));
+            Assert.assertFalse(board.isRevealed(neighbour));
+            flagged.flagSquare(square(neighbour), false);
+
+            int chorded = chordableSquare(board, neighbours);
+            int count = board.getTopology().neighbours(chorded, neighbours);
+            for (int i = 0; i < count; i++) {
+                if (board.isMine(neighbours[i])) {
+                    flagged.flagSquare(square(neighbours[i]), true);
+                }
+            }
+            Assert.assertTrue(flagged.chordSquare(square(chorded)).contains("revealed"));
+        }
+
+        MinesweeperGridService replayed = MoveJournalReplayer.replay(other);
+        for (int index = 0; index < board.getSquareCount(); index++) {
+            Assert.assertEquals(board.isRevealed(index), replayed.getBoard().isRevealed(index));
+            Assert.assertEquals(board.isFlagged(index), replayed.getBoard().isFlagged(index));
+        }
+    }
+
+    /**
+     * @return a revealed number with both a hidden mine and a hidden safe square around it
+     */
+    private static int chordableSquare(MinesweeperBoard board, int[] neighbours) {
+        for (int index = 0; index < board.getSquareCount(); index++) {
+            if (!board.isRevealed(index) || board.getAdjacentMines(index) == 0) {
+                continue;
+            }
+            boolean hiddenSafe = false;
+            int count = board.getTopology().neighbours(index, neighbours);
+            for (int i = 0; i < count; i++) {
+                hiddenSafe |= !board.isRevealed(neighbours[i]) && !board.isMine(neighbours[i]);
+            }
+            if (hiddenSafe) {
+                return index;
+            }
+        }
+        throw new AssertionError("No square can be chorded");
+    }
+
+    private static String square(int index) {
+        return CoordinateCodec.format(index / SIZE, index % SIZE);
+    }
+
+    @Test
+    public void testUndoIsRefusedWhileRecording() throws IOException {
+        GameController recorded = new GameController(SIZE, MINES, SEED);
+        Path other = temporaryFolder.newFile("undo.journal").toPath();
+        try (MoveJournal moveJournal = MoveJournal.create(other, SIZE, MINES, SEED)) {
+            recorded.recordMovesTo(moveJournal);
+            MinesweeperGridService minesweeperGrid = recorded.getGrid();
+            int index = 0;
+            while (minesweeperGrid.getBoard().isMine(index)) {
+                index++;
+            }
+            recorded.selectSquare(CoordinateCodec.format(index / SIZE, index % SIZE));
+
+            Assert.assertTrue(recorded.undo().contains("not available"));
+            Assert.assertTrue(minesweeperGrid.getBoard().isRevealed(index));
+            Assert.assertEquals(1, moveJournal.getMoveCount());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testMismatchedSeed() throws IOException {
+        Path other = temporaryFolder.newFile("other.journal").toPath();
+        byte[] journal = Files.readAllBytes(path);
+        journal[MoveJournal.HEADER_BYTES - 1] ^= 1;
+        Files.write(other, journal);
+
+        MoveJournalReplayer.replay(other);
+    }
+}
@@ -0,0 +1,210 @@
+package com.gic.minesweeper.server;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class GameServerTest {
+
+    private GameServer gameServer;
+
+    @Before
+    public void setUp() throws IOException {
+        gameServer = new GameServer(0);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        gameServer.close();
+    }
+
+    @Test
+    public void testNewSessionAndReveal() throws IOException {
+        try (Client client = new Client()) {
+            Assert.assertTrue(client.send("NEW 4 3").startsWith("SESSION "));
+            String result = client.send("REVEAL A1");
+            Assert.assertTrue(result.contains("adjacent mines") || result.contains("detonated") || result.contains("won"));
+
+            List<String> grid = client.grid();
+            Assert.assertEquals(5, grid.size());
+            Assert.assertEquals("  1 2 3 4 ", grid.get(0));
+        }
+    }
+
+    @Test
+    public void testJoinExistingSession() throws IOException {
+        String session;
+        try (Client client = new Client()) {
+            session = client.send("NEW 5 2");
+        }
+
+        try (Client client = new Client()) {
+            Assert.assertEquals(session, client.send("JOIN " + session.substring(8)));
+            Assert.assertTrue(client.send("JOIN 999999").startsWith("ERROR"));
+        }
+    }
+
+    @Test
+    public void testInvalidCommands() throws IOException {
+        try (Client client = new Client()) {
+            Assert.assertTrue(client.send("REVEAL A1").startsWith("ERROR"));
+            Assert.assertTrue(client.send("NEW 1 1").startsWith("ERROR"));
+            Assert.assertTrue(client.send("NEW").startsWith("ERROR"));
+            Assert.assertTrue(client.send("JUMP").startsWith("ERROR"));
+        }
+    }
+
+    @Test
+    public void testOversizedOrMalformedNewGame() throws IOException {
+        try (Client client = new Client()) {
+            Assert.assertTrue(client.send("NEW 100000 10").startsWith("ERROR"));
+            Assert.assertTrue(client.send("NEW 99999999999 1").startsWith("ERROR"));
+            Assert.assertTrue(client.send("NEW four 3").startsWith("ERROR"));
+            Assert.assertEquals("ERROR Usage: NEW size mines", client.send("NEW 4"));
+            Assert.assertEquals("ERROR Usage: REVEAL square", client.send("REVEAL"));
+            Assert.assertEquals("ERROR Usage: JOIN id", client.send("JOIN 1 2"));
+            Assert.assertTrue(client.send("NEW 4 3").startsWith("SESSION "));
+        }
+        Assert.assertEquals(1, gameServer.getSessionRegistry().size());
+    }
+
+    @Test
+    public void testIdleSessionsAreEvicted() {
+        SessionRegistry sessionRegistry = new SessionRegistry(10, 2, Duration.ZERO);
+        GameSession joined = sessionRegistry.create(4, 3);
+        joined.attach();
+        GameSession left = sessionRegistry.create(4, 3);
+
+        Assert.assertEquals(1, sessionRegistry.evictIdle(System.nanoTime() + 1));
+        Assert.assertSame(joined, sessionRegistry.get(joined.getId()));
+        Assert.assertNull(sessionRegistry.get(left.getId()));
+
+        joined.detach();
+        sessionRegistry.create(4, 3);
+        Assert.assertNotNull(sessionRegistry.create(4, 3));
+        Assert.assertNull(sessionRegistry.get(joined.getId()));
+    }
+
+    @Test
+    public void testSessionKeepsNoUndoHistory() {
+        GameSession session = new SessionRegistry().create(4, 3);
+        session.selectSquare("A1");
+
+        Assert.assertFalse(session.isUndoEnabled());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSessionLimit() {
+        SessionRegistry sessionRegistry = new SessionRegistry(10, 1, Duration.ofHours(1));
+        sessionRegistry.create(4, 3);
+        sessionRegistry.create(4, 3);
+    }
+
+    @Test
+    public void testConcurrentCreatesRespectTheSessionLimit() throws Exception {
+        SessionRegistry sessionRegistry = new SessionRegistry(10, 8, Duration.ofHours(1));
+        ExecutorService players = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                results.add(players.submit(() -> {
+                    try {
+                        return sessionRegistry.create(4, 3) != null;
+                    } catch (IllegalArgumentException e) {
+                        return false;
+                    }
+                }));
+            }
+
+            int created = 0;
+            for (Future<Boolean> result : results) {
+                created += result.get() ? 1 : 0;
+            }
+            Assert.assertEquals(8, created);
+            Assert.assertEquals(8, sessionRegistry.size());
+        } finally {
+            players.shutdown();
+        }
+
+        GameSession session = sessionRegistry.get(1);
+        Assert.assertTrue(sessionRegistry.remove(session.getId()));
+        Assert.assertFalse(sessionRegistry.remove(session.getId()));
+        Assert.assertNotNull(sessionRegistry.create(4, 3));
+    }
+
+    @Test
+    public void testConcurrentSessions() throws Exception {
+        ExecutorService players = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                results.add(players.submit(() -> {
+                    try (Client client = new Client()) {
+                        client.send("NEW 10 10");
+                        client.send("REVEAL E5");
+                        return client.send("END");
+                    }
+                }));
+            }
+
+            for (Future<String> result : results) {
+                Assert.assertEquals("OK", result.get());
+            }
+            Assert.assertEquals(0, gameServer.getSessionRegistry().size());
+        } finally {
+            players.shutdown();
+        }
+    }
+
+    private class Client implements AutoCloseable {
+
+        private final Socket socket;
+        private final BufferedReader reader;
+        private final PrintWriter writer;
+
+        Client() throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), gameServer.getPort());
+            reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            writer = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+        }
+
+        String send(String command) throws IOException {
+            writer.print(command + "\n");
+            writer.flush();
+            return reader.readLine();
+        }
+
+        List<String> grid() throws IOException {
+            writer.print("GRID\n");
+            writer.flush();
+            List<String> lines = new ArrayList<>();
+            String line;
+            while (!(line = reader.readLine()).equals(".")) {
+                lines.add(line);
+            }
+            return lines;
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.print("QUIT\n");
+            writer.flush();
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.gic.minesweeper.service;
+
+import com.gic.minesweeper.model.BoardTopology;
+import com.gic.minesweeper.model.MinesweeperBoard;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+public class AdjacencyCounterTest {
+
+    @Test
+    public void testMatchesPerSquareCounts() {
+        for (int size : new int[]{1, 2, 5, 63, 64, 65, 129}) {
+            MinesweeperBoard board = randomBoard(size, size * size / 3);
+            AdjacencyCounter.countAdjacentMines(board);
+            assertCounts(board);
+        }
+    }
+
+    @Test
+    public void testFullyMinedNeighbourhood() {
+        MinesweeperBoard board = new MinesweeperBoard(3);
+        for (int index = 0; index < board.getSquareCount(); index++) {
+            board.setMine(index, index != 4);
+        }
+
+        AdjacencyCounter.countAdjacentMines(board);
+
+        Assert.assertEquals(8, board.getAdjacentMines(4));
+        Assert.assertEquals(0, board.getAdjacentMines(0));
+    }
+
+    @Test
+    public void testParallelMatchesPerSquareCounts() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            MinesweeperBoard board = randomBoard(600, 600 * 600 / 5);
+            AdjacencyCounter.countAdjacentMines(board, pool);
+            assertCounts(board);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testRecountKeepsSquareBitsAndMarksChangedRows() {
+        MinesweeperBoard board = new MinesweeperBoard(5);
+        board.setMine(board.indexOf(0, 0), true);
+        AdjacencyCounter.countAdjacentMines(board);
+        board.reveal(board.indexOf(1, 1));
+        board.reveal(board.indexOf(4, 4));
+        board.clearDirtyRows();
+
+        board.setMine(board.indexOf(2, 2), true);
+        AdjacencyCounter.countAdjacentMines(board);
+
+        Assert.assertEquals(2, board.getAdjacentMines(board.indexOf(1, 1)));
+        Assert.assertTrue(board.isRevealed(board.indexOf(1, 1)));
+        Assert.assertTrue(board.isMine(board.indexOf(0, 0)));
+        Assert.assertEquals(1, board.nextDirtyRow(0));
+        Assert.assertEquals(-1, board.nextDirtyRow(2));
+    }
+
+    @Test
+    public void testMatchesNeighbourCountsOfEachTopology() {
+        for (BoardTopology topology : new BoardTopology[]{BoardTopology.rectangular(5, 70),
+                BoardTopology.rectangular(67, 3), BoardTopology.toroidal(9, 6), BoardTopology.hexagonal(11, 8)}) {
+            MinesweeperBoard board = new MinesweeperBoard(topology);
+            new FloydMinePlacement().placeMines(board, topology.getSquareCount() / 3, new SplittableRandom(7));
+            AdjacencyCounter.countAdjacentMines(board);
+
+            int[] neighbours = new int[topology.getMaxNeighbours()];
+            for (int index = 0; index < topology.getSquareCount(); index++) {
+                int expected = 0;
+                if (!board.isMine(index)) {
+                    int count = topology.neighbours(index, neighbours);
+                    for (int i = 0; i < count; i++) {
+                        if (board.isMine(neighbours[i])) {
+                            expected++;
+                        }
+                    }
+                }
+                Assert.assertEquals(topology + " square " + index, expected, board.getAdjacentMines(index));
+            }
+        }
+    }
+
+    private MinesweeperBoard randomBoard(int size, int mines) {
+        MinesweeperBoard board = new MinesweeperBoard(size);
+        new FloydMinePlacement().placeMines(board, mines, new SplittableRandom(size));
+        return board;
+    }
+
+    private void assertCounts(MinesweeperBoard board) {
+        int size = board.getSize();
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int expected = 0;
+                if (!board.isMine(board.indexOf(row, col))) {
+                    for (int r = Math.max(0, row - 1); r <= Math.min(size - 1, row + 1); r++) {
+                        for (int c = Math.max(0, col - 1); c <= Math.min(size - 1, col + 1); c++) {
+                            if (board.isMine(board.indexOf(r, c))) {
+                                expected++;
+                            }
+                        }
+                    }
+                }
+                Assert.assertEquals("Square " + row + "," + col, expected, board.getAdjacentMines(board.indexOf(row, col)));
+            }
+        }
+    }
+}
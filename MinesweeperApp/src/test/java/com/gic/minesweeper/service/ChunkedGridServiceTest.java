@@ -0,0 +1,143 @@
+package com.gic.minesweeper.service;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ChunkedGridServiceTest {
+
+    @Test
+    public void testSameSeedSameMines() {
+        ChunkedGridService first = new ChunkedGridService(Integer.MAX_VALUE, Integer.MAX_VALUE, 16, 40, 11L, 4);
+        ChunkedGridService second = new ChunkedGridService(Integer.MAX_VALUE, Integer.MAX_VALUE, 16, 40, 11L, 4);
+
+        for (int row = 1000; row < 1040; row++) {
+            for (int col = 5000; col < 5040; col++) {
+                Assert.assertEquals(first.isMine(row, col), second.isMine(row, col));
+            }
+        }
+    }
+
+    @Test
+    public void testAdjacencyAcrossTileEdges() {
+        ChunkedGridService grid = new ChunkedGridService(Integer.MAX_VALUE, Integer.MAX_VALUE, 8, 20, 3L, 2);
+
+        assertAdjacency(grid, 40, 40);
+    }
+
+    @Test
+    public void testUntouchedTilesAreEvicted() {
+        ChunkedGridService grid = new ChunkedGridService(Integer.MAX_VALUE, Integer.MAX_VALUE, 16, 10, 5L, 3);
+
+        for (int tile = 0; tile < 20; tile++) {
+            grid.isMine(tile * 16, 0);
+        }
+
+        Assert.assertEquals(3, grid.getCachedTileCount());
+        Assert.assertEquals(0, grid.getExploredTileCount());
+    }
+
+    @Test
+    public void testCascadeCrossesTiles() {
+        ChunkedGridService grid = new ChunkedGridService(1000, 1000, 32, 1, 9L, 2);
+
+        int row = 0;
+        int col = 0;
+        while (grid.isMine(row, col) || grid.getAdjacentMines(row, col) != 0) {
+            col++;
+        }
+
+        Assert.assertTrue(grid.revealCell(row, col));
+        Assert.assertFalse(grid.isGameOver());
+        Assert.assertTrue(grid.getLastRevealedCount() > 32 * 32);
+        Assert.assertTrue(grid.getExploredTileCount() > 1);
+        Assert.assertTrue(grid.getExploredTileCount() <= 32 * 32);
+    }
+
+    @Test
+    public void testCascadeMatchesFloodFill() {
+        ChunkedGridService grid = new ChunkedGridService(40, 40, 8, 4, 21L, 1);
+        ChunkedGridService reference = new ChunkedGridService(40, 40, 8, 4, 21L, 1);
+
+        int col = 0;
+        while (grid.isMine(20, col) || grid.getAdjacentMines(20, col) != 0) {
+            col++;
+        }
+        Assert.assertTrue(grid.revealCell(20, col));
+
+        // Flood fill the same game through lookups only
+        boolean[] expected = new boolean[40 * 40];
+        int[] stack = new int[40 * 40];
+        int top = 0;
+        int count = 1;
+        expected[20 * 40 + col] = true;
+        stack[top++] = 20 * 40 + col;
+        while (top > 0) {
+            int square = stack[--top];
+            for (int r = square / 40 - 1; r <= square / 40 + 1; r++) {
+                for (int c = square % 40 - 1; c <= square % 40 + 1; c++) {
+                    if (!reference.isValidPosition(r, c) || expected[r * 40 + c] || reference.isMine(r, c)) {
+                        continue;
+                    }
+                    expected[r * 40 + c] = true;
+                    count++;
+                    if (reference.getAdjacentMines(r, c) == 0) {
+                        stack[top++] = r * 40 + c;
+                    }
+                }
+            }
+        }
+
+        Assert.assertTrue(count > 64);
+        Assert.assertEquals(count, grid.getLastRevealedCount());
+        for (int index = 0; index < 40 * 40; index++) {
+            Assert.assertEquals("Square " + index, expected[index], grid.isRevealed(index / 40, index % 40));
+        }
+    }
+
+    @Test
+    public void testRevealMine() {
+        ChunkedGridService grid = new ChunkedGridService(Integer.MAX_VALUE, Integer.MAX_VALUE, 8, 5, 13L, 2);
+
+        int col = 0;
+        while (!grid.isMine(100, col)) {
+            col++;
+        }
+
+        Assert.assertTrue(grid.revealCell(100, col));
+        Assert.assertTrue(grid.isGameOver());
+        Assert.assertFalse(grid.revealCell(0, 0));
+    }
+
+    @Test
+    public void testMinesOutsideGridAreIgnored() {
+        ChunkedGridService grid = new ChunkedGridService(10, 10, 8, 20, 1L, 4);
+
+        Assert.assertFalse(grid.isValidPosition(10, 0));
+        assertAdjacency(grid, 10, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPosition() {
+        new ChunkedGridService(Integer.MAX_VALUE, Integer.MAX_VALUE, 8, 5, 1L, 2).isMine(-1, 0);
+    }
+
+    private void assertAdjacency(ChunkedGridService grid, int rows, int cols) {
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                if (grid.isMine(row, col)) {
+                    continue;
+                }
+
+                int expected = 0;
+                for (int r = Math.max(0, row - 1); r <= row + 1; r++) {
+                    for (int c = Math.max(0, col - 1); c <= col + 1; c++) {
+                        if (grid.isValidPosition(r, c) && grid.isMine(r, c)) {
+                            expected++;
+                        }
+                    }
+                }
+                Assert.assertEquals("Square " + row + "," + col, expected, grid.getAdjacentMines(row, col));
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.gic.minesweeper.service;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CoordinateCodecTest {
+
+    @Test
+    public void testParseSingleLetterRow() {
+        long square = CoordinateCodec.parse("C12");
+        Assert.assertEquals(2, CoordinateCodec.row(square));
+        Assert.assertEquals(11, CoordinateCodec.col(square));
+    }
+
+    @Test
+    public void testParseMultiLetterRow() {
+        Assert.assertEquals(26, CoordinateCodec.row(CoordinateCodec.parse("AA1")));
+        Assert.assertEquals(51, CoordinateCodec.row(CoordinateCodec.parse("az1")));
+        Assert.assertEquals(702, CoordinateCodec.row(CoordinateCodec.parse("AAA3")));
+        Assert.assertEquals(2, CoordinateCodec.col(CoordinateCodec.parse("AAA3")));
+    }
+
+    @Test
+    public void testParseFromStringBuilder() {
+        StringBuilder input = new StringBuilder("B7");
+        Assert.assertEquals(CoordinateCodec.pack(1, 6), CoordinateCodec.parse(input));
+    }
+
+    @Test
+    public void testParseInvalid() {
+        Assert.assertEquals(CoordinateCodec.INVALID, CoordinateCodec.parse(null));
+        Assert.assertEquals(CoordinateCodec.INVALID, CoordinateCodec.parse(""));
+        Assert.assertEquals(CoordinateCodec.INVALID, CoordinateCodec.parse("A"));
+        Assert.assertEquals(CoordinateCodec.INVALID, CoordinateCodec.parse("AX"));
+        Assert.assertEquals(CoordinateCodec.INVALID, CoordinateCodec.parse("12"));
+        Assert.assertEquals(CoordinateCodec.INVALID, CoordinateCodec.parse("A1B"));
+        Assert.assertEquals(CoordinateCodec.INVALID, CoordinateCodec.parse("A99999999999"));
+    }
+
+    @Test
+    public void testRowLabels() {
+        Assert.assertEquals("A", CoordinateCodec.rowLabel(0));
+        Assert.assertEquals("Z", CoordinateCodec.rowLabel(25));
+        Assert.assertEquals("AA", CoordinateCodec.rowLabel(26));
+        Assert.assertEquals("ZZ", CoordinateCodec.rowLabel(701));
+        Assert.assertEquals("AAA", CoordinateCodec.rowLabel(702));
+        Assert.assertEquals("AB12", CoordinateCodec.format(27, 11));
+    }
+
+    @Test
+    public void testLabelsRoundTrip() {
+        for (int row = 0; row < 20000; row += 7) {
+            long square = CoordinateCodec.parse(CoordinateCodec.format(row, 4));
+            Assert.assertEquals(row, CoordinateCodec.row(square));
+            Assert.assertEquals(4, CoordinateCodec.col(square));
+        }
+    }
+}
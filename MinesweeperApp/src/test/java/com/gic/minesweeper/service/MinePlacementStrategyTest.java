@@ -0,0 +1,78 @@
+package com.gic.minesweeper.service;
+
+import com.gic.minesweeper.model.MinesweeperBoard;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+public class MinePlacementStrategyTest {
+
+    @Test
+    public void testFisherYatesPlacesExactCount() {
+        assertPlacesExactCount(new FisherYatesMinePlacement(), 50, 875);
+    }
+
+    @Test
+    public void testFisherYatesWithKeptIndexesMatchesFreshIndexes() {
+        FisherYatesMinePlacement reused = new FisherYatesMinePlacement(true);
+        for (int seed = 0; seed < 3; seed++) {
+            MinesweeperBoard first = new MinesweeperBoard(20);
+            MinesweeperBoard second = new MinesweeperBoard(20);
+            reused.placeMines(first, 150, new SplittableRandom(seed));
+            new FisherYatesMinePlacement().placeMines(second, 150, new SplittableRandom(seed));
+
+            for (int index = 0; index < first.getSquareCount(); index++) {
+                Assert.assertEquals(second.isMine(index), first.isMine(index));
+            }
+        }
+    }
+
+    @Test
+    public void testFloydPlacesExactCount() {
+        assertPlacesExactCount(new FloydMinePlacement(), 50, 875);
+    }
+
+    @Test
+    public void testAdaptivePlacesExactCount() {
+        assertPlacesExactCount(new AdaptiveMinePlacement(), 50, 10);
+        assertPlacesExactCount(new AdaptiveMinePlacement(), 50, 875);
+    }
+
+    @Test
+    public void testAdaptiveSelection() {
+        AdaptiveMinePlacement adaptiveMinePlacement = new AdaptiveMinePlacement(0.25);
+        Assert.assertTrue(adaptiveMinePlacement.select(100, 10) instanceof FloydMinePlacement);
+        Assert.assertTrue(adaptiveMinePlacement.select(100, 25) instanceof FisherYatesMinePlacement);
+    }
+
+    @Test
+    public void testSameSeedSameLayout() {
+        MinesweeperBoard first = new MinesweeperBoard(40);
+        MinesweeperBoard second = new MinesweeperBoard(40);
+        new FloydMinePlacement().placeMines(first, 200, new SplittableRandom(7));
+        new FloydMinePlacement().placeMines(second, 200, new SplittableRandom(7));
+
+        for (int index = 0; index < first.getSquareCount(); index++) {
+            Assert.assertEquals(first.isMine(index), second.isMine(index));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDenseThreshold() {
+        new AdaptiveMinePlacement(1.5);
+    }
+
+    private void assertPlacesExactCount(MinePlacementStrategy minePlacementStrategy, int size, int mines) {
+        MinesweeperBoard board = new MinesweeperBoard(size);
+        minePlacementStrategy.placeMines(board, mines, new SplittableRandom(size + mines));
+
+        int mineCount = 0;
+        for (int index = 0; index < board.getSquareCount(); index++) {
+            if (board.isMine(index)) {
+                mineCount++;
+            }
+        }
+        Assert.assertEquals(mines, mineCount);
+    }
+}
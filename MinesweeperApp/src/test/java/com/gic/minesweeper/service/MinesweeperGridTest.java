@@ -1,11 +1,19 @@
 package com.gic.minesweeper.service;
 
 import com.gic.minesweeper.helper.RandomHelper;
+import com.gic.minesweeper.model.BoardPool;
+import com.gic.minesweeper.model.BoardTopology;
+import com.gic.minesweeper.model.MinesweeperBoard;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.SplittableRandom;
+
 public class MinesweeperGridTest {
+    // Partial Fisher-Yates draws that place mines at (0,0), (1,1) and (2,2) on a 4x4 grid
+    private static final int[] DIAGONAL_MINES = {0, 4, 8};
+
     private MinesweeperGridService minesweeperGrid;
     private RandomHelper randomHelper;
     
@@ -39,7 +47,7 @@ public class MinesweeperGridTest {
     
     @Test
     public void testMinesPlacement() {
-        randomHelper.setValues(new int[]{0, 0, 1, 1, 2, 2});
+        randomHelper.setValues(DIAGONAL_MINES);
         minesweeperGrid = new MinesweeperGridService(4, 3, randomHelper);
         
         Assert.assertTrue(minesweeperGrid.getCell(0, 0).isMine());
@@ -60,7 +68,7 @@ public class MinesweeperGridTest {
     @Test
     public void testAdjacentMinesCalculation() {
         // Setup mock to place mines at specific positions
-        randomHelper.setValues(new int[]{0, 0, 1, 1, 2, 2});
+        randomHelper.setValues(DIAGONAL_MINES);
         minesweeperGrid = new MinesweeperGridService(4, 3, randomHelper);
         
         // Check cells adjacent to mines
@@ -73,7 +81,7 @@ public class MinesweeperGridTest {
     
     @Test
     public void testRevealCell() {
-        randomHelper.setValues(new int[]{0, 0, 1, 1, 2, 2});
+        randomHelper.setValues(DIAGONAL_MINES);
         minesweeperGrid = new MinesweeperGridService(4, 3, randomHelper);
 
         Assert.assertTrue(minesweeperGrid.revealCell(3, 3));
@@ -83,7 +91,7 @@ public class MinesweeperGridTest {
     
     @Test
     public void testRevealMine() {
-        randomHelper.setValues(new int[]{0, 0, 1, 1, 2, 2});
+        randomHelper.setValues(DIAGONAL_MINES);
         minesweeperGrid = new MinesweeperGridService(4, 3, randomHelper);
 
         Assert.assertTrue(minesweeperGrid.revealCell(0, 0));
@@ -94,7 +102,7 @@ public class MinesweeperGridTest {
     
     @Test
     public void testRevealEmptyCell() {
-        randomHelper.setValues(new int[]{0, 0, 1, 1, 2, 2});
+        randomHelper.setValues(DIAGONAL_MINES);
         minesweeperGrid = new MinesweeperGridService(4, 3, randomHelper);
 
         Assert.assertTrue(minesweeperGrid.revealCell(3, 0));
@@ -126,7 +134,7 @@ public class MinesweeperGridTest {
     
     @Test
     public void testWinCondition() {
-        randomHelper.setValues(new int[]{0, 0, 1, 1, 2, 2});
+        randomHelper.setValues(DIAGONAL_MINES);
         minesweeperGrid = new MinesweeperGridService(4, 3, randomHelper);
 
         for (int row = 0; row < 4; row++) {
@@ -168,7 +176,7 @@ public class MinesweeperGridTest {
     
     @Test
     public void testRevealAlreadyRevealed() {
-        randomHelper.setValues(new int[]{0, 0, 1, 1, 2, 2});
+        randomHelper.setValues(DIAGONAL_MINES);
         minesweeperGrid = new MinesweeperGridService(4, 3, randomHelper);
 
         minesweeperGrid.revealCell(3, 3);
@@ -177,5 +185,356 @@ public class MinesweeperGridTest {
         Assert.assertFalse(minesweeperGrid.isGameOver());
         Assert.assertFalse(minesweeperGrid.isGameWon());
     }
+
+    @Test
+    public void testRemainingSafeSquares() {
+        randomHelper.setValues(DIAGONAL_MINES);
+        minesweeperGrid = new MinesweeperGridService(4, 3, randomHelper);
+        Assert.assertEquals(13, minesweeperGrid.getRemainingSafeSquares());
+
+        minesweeperGrid.revealCell(3, 0);
+        Assert.assertEquals(9, minesweeperGrid.getRemainingSafeSquares());
+
+        minesweeperGrid.revealCell(0, 3);
+        Assert.assertEquals(5, minesweeperGrid.getRemainingSafeSquares());
+        Assert.assertFalse(minesweeperGrid.isGameWon());
+    }
+
+    @Test
+    public void testRevealedCount() {
+        randomHelper.setValues(DIAGONAL_MINES);
+        minesweeperGrid = new MinesweeperGridService(4, 3, randomHelper);
+
+        minesweeperGrid.revealCell(3, 0);
+        Assert.assertEquals(4, minesweeperGrid.getLastRevealedCount());
+
+        minesweeperGrid.revealCell(3, 3);
+        Assert.assertEquals(1, minesweeperGrid.getLastRevealedCount());
+
+        minesweeperGrid.revealCell(3, 3);
+        Assert.assertEquals(0, minesweeperGrid.getLastRevealedCount());
+    }
+
+    @Test
+    public void testRevealCellsBatch() {
+        randomHelper.setValues(DIAGONAL_MINES);
+        minesweeperGrid = new MinesweeperGridService(4, 3, randomHelper);
+        MoveBatchResult result = new MoveBatchResult();
+
+        minesweeperGrid.revealCells(new int[]{3, 3, 99, 1, 0, 2}, 0, 6, result);
+
+        Assert.assertEquals(MoveBatchResult.STATUS_LOST, result.getStatus());
+        Assert.assertEquals(5, result.getMoveCount());
+        Assert.assertEquals(MoveBatchResult.MOVE_REVEALED, result.getMoveStatus(0));
+        Assert.assertEquals(0, result.getAdjacentMines(0));
+        Assert.assertEquals(MoveBatchResult.MOVE_ALREADY_REVEALED, result.getMoveStatus(1));
+        Assert.assertEquals(MoveBatchResult.MOVE_INVALID, result.getMoveStatus(2));
+        Assert.assertEquals(-1, result.getAdjacentMines(2));
+        Assert.assertEquals(2, result.getAdjacentMines(3));
+        Assert.assertEquals(MoveBatchResult.MOVE_DETONATED, result.getMoveStatus(4));
+
+        Assert.assertEquals(6, result.getRevealedCount());
+        Assert.assertEquals(0, result.getRevealedStart(0));
+        Assert.assertEquals(4, result.getRevealedEnd(0));
+        Assert.assertEquals(4, result.getRevealedStart(1));
+        Assert.assertEquals(4, result.getRevealedEnd(2));
+        Assert.assertEquals(1, result.getRevealedSquare(4));
+        Assert.assertEquals(0, result.getRevealedSquare(5));
+    }
+
+    @Test
+    public void testRevealCellsBatchStopsAtWin() {
+        randomHelper.setValues(DIAGONAL_MINES);
+        minesweeperGrid = new MinesweeperGridService(4, 3, randomHelper);
+        MoveBatchResult result = new MoveBatchResult();
+        int[] moves = {3, 12, 1, 4, 8, 9, 11, 13, 14, 15, 0};
+
+        minesweeperGrid.revealCells(moves, 0, moves.length, result);
+
+        Assert.assertEquals(MoveBatchResult.STATUS_WON, result.getStatus());
+        Assert.assertTrue(result.getMoveCount() < moves.length);
+        Assert.assertEquals(13, result.getRevealedCount());
+
+        minesweeperGrid.revealCells(moves, 0, 1, result);
+        Assert.assertEquals(0, result.getMoveCount());
+        Assert.assertEquals(0, result.getRevealedCount());
+    }
+
+    @Test
+    public void testFlaggedSquaresAreNotRevealed() {
+        randomHelper.setValues(DIAGONAL_MINES);
+        minesweeperGrid = new MinesweeperGridService(4, 3, randomHelper);
+
+        Assert.assertTrue(minesweeperGrid.setFlag(0, 0, true));
+        Assert.assertFalse(minesweeperGrid.revealCell(0, 0));
+        Assert.assertFalse(minesweeperGrid.isGameOver());
+        Assert.assertEquals("F", minesweeperGrid.getCell(0, 0).getDisplayValue());
+
+        Assert.assertTrue(minesweeperGrid.setFlag(2, 3, true));
+        minesweeperGrid.revealCell(0, 3);
+        Assert.assertFalse(minesweeperGrid.getCell(2, 3).isRevealed());
+        Assert.assertFalse(minesweeperGrid.setFlag(0, 3, true));
+    }
+
+    @Test
+    public void testChord() {
+        randomHelper.setValues(DIAGONAL_MINES);
+        minesweeperGrid = new MinesweeperGridService(4, 3, randomHelper);
+        minesweeperGrid.revealCell(1, 0);
+
+        Assert.assertFalse(minesweeperGrid.chordCell(1, 0));
+        minesweeperGrid.setFlag(0, 0, true);
+        minesweeperGrid.setFlag(1, 1, true);
+
+        Assert.assertTrue(minesweeperGrid.chordCell(1, 0));
+        Assert.assertFalse(minesweeperGrid.isGameOver());
+        Assert.assertTrue(minesweeperGrid.getCell(2, 0).isRevealed());
+        Assert.assertTrue(minesweeperGrid.getCell(2, 1).isRevealed());
+        Assert.assertTrue(minesweeperGrid.getCell(0, 1).isRevealed());
+        Assert.assertFalse(minesweeperGrid.getCell(0, 0).isRevealed());
+        Assert.assertEquals(3, minesweeperGrid.getLastRevealedCount());
+    }
+
+    @Test
+    public void testChordWithWrongFlagDetonates() {
+        randomHelper.setValues(DIAGONAL_MINES);
+        minesweeperGrid = new MinesweeperGridService(4, 3, randomHelper);
+        minesweeperGrid.revealCell(1, 0);
+        minesweeperGrid.setFlag(0, 0, true);
+        minesweeperGrid.setFlag(2, 0, true);
+
+        Assert.assertTrue(minesweeperGrid.chordCell(1, 0));
+        Assert.assertTrue(minesweeperGrid.isGameOver());
+    }
+
+    @Test
+    public void testChordWins() {
+        randomHelper.setValues(DIAGONAL_MINES);
+        minesweeperGrid = new MinesweeperGridService(4, 3, randomHelper);
+        minesweeperGrid.revealCell(0, 3);
+        minesweeperGrid.revealCell(3, 0);
+        minesweeperGrid.revealCell(3, 3);
+        minesweeperGrid.revealCell(2, 3);
+        minesweeperGrid.revealCell(3, 2);
+        minesweeperGrid.revealCell(1, 0);
+        minesweeperGrid.revealCell(2, 1);
+        minesweeperGrid.revealCell(1, 2);
+        minesweeperGrid.setFlag(0, 0, true);
+        minesweeperGrid.setFlag(1, 1, true);
+        Assert.assertFalse(minesweeperGrid.isGameWon());
+
+        Assert.assertTrue(minesweeperGrid.chordCell(1, 0));
+        Assert.assertTrue(minesweeperGrid.isGameWon());
+    }
+
+    @Test
+    public void testUndoRedo() {
+        randomHelper.setValues(DIAGONAL_MINES);
+        minesweeperGrid = new MinesweeperGridService(4, 3, randomHelper);
+        minesweeperGrid.enableHistory();
+        Assert.assertFalse(minesweeperGrid.canUndo());
+
+        minesweeperGrid.revealCell(0, 3);
+        minesweeperGrid.revealCell(3, 0);
+        Assert.assertEquals(5, minesweeperGrid.getRemainingSafeSquares());
+
+        Assert.assertTrue(minesweeperGrid.undo());
+        Assert.assertFalse(minesweeperGrid.getCell(3, 0).isRevealed());
+        Assert.assertTrue(minesweeperGrid.getCell(0, 3).isRevealed());
+        Assert.assertEquals(9, minesweeperGrid.getRemainingSafeSquares());
+
+        Assert.assertTrue(minesweeperGrid.undo());
+        Assert.assertFalse(minesweeperGrid.undo());
+        Assert.assertEquals(13, minesweeperGrid.getRemainingSafeSquares());
+
+        Assert.assertTrue(minesweeperGrid.redo());
+        Assert.assertEquals(4, minesweeperGrid.getLastRevealedCount());
+        Assert.assertEquals(9, minesweeperGrid.getRemainingSafeSquares());
+
+        minesweeperGrid.revealCell(2, 0);
+        Assert.assertFalse(minesweeperGrid.canRedo());
+        Assert.assertEquals(8, minesweeperGrid.getRemainingSafeSquares());
+    }
+
+    @Test
+    public void testUndoLosingMove() {
+        randomHelper.setValues(DIAGONAL_MINES);
+        minesweeperGrid = new MinesweeperGridService(4, 3, randomHelper);
+        minesweeperGrid.enableHistory();
+        minesweeperGrid.revealCell(1, 1);
+        Assert.assertTrue(minesweeperGrid.isGameOver());
+
+        Assert.assertTrue(minesweeperGrid.undo());
+        Assert.assertFalse(minesweeperGrid.isGameOver());
+        Assert.assertFalse(minesweeperGrid.getCell(1, 1).isRevealed());
+
+        Assert.assertTrue(minesweeperGrid.redo());
+        Assert.assertTrue(minesweeperGrid.isGameOver());
+    }
+
+    @Test
+    public void testUndoWinningChord() {
+        randomHelper.setValues(DIAGONAL_MINES);
+        minesweeperGrid = new MinesweeperGridService(4, 3, randomHelper);
+        minesweeperGrid.enableHistory();
+        for (int index : new int[]{3, 12, 15, 11, 14, 4, 9, 6}) {
+            minesweeperGrid.revealCell(index / 4, index % 4);
+        }
+        minesweeperGrid.setFlag(0, 0, true);
+        minesweeperGrid.setFlag(1, 1, true);
+        minesweeperGrid.chordCell(1, 0);
+        Assert.assertTrue(minesweeperGrid.isGameWon());
+
+        Assert.assertTrue(minesweeperGrid.undo());
+        Assert.assertFalse(minesweeperGrid.isGameWon());
+        Assert.assertEquals(1, minesweeperGrid.getRemainingSafeSquares());
+    }
+
+    @Test
+    public void testHistoryIsOffByDefault() {
+        randomHelper.setValues(DIAGONAL_MINES);
+        minesweeperGrid = new MinesweeperGridService(4, 3, randomHelper);
+        minesweeperGrid.revealCell(0, 3);
+
+        Assert.assertFalse(minesweeperGrid.isHistoryEnabled());
+        Assert.assertFalse(minesweeperGrid.canUndo());
+        Assert.assertFalse(minesweeperGrid.undo());
+        Assert.assertTrue(minesweeperGrid.getCell(0, 3).isRevealed());
+    }
+
+    @Test
+    public void testSeededGridIsReproducible() {
+        MinesweeperGridService first = new MinesweeperGridService(30, 300, 42L);
+        MinesweeperGridService second = new MinesweeperGridService(30, 300, 42L);
+
+        for (int row = 0; row < 30; row++) {
+            for (int col = 0; col < 30; col++) {
+                Assert.assertEquals(first.getCell(row, col).isMine(), second.getCell(row, col).isMine());
+            }
+        }
+        Assert.assertEquals(900 - 300, first.getRemainingSafeSquares());
+    }
+
+    @Test
+    public void testReset() {
+        MinesweeperGridService grid = new MinesweeperGridService(10, 20, 1L);
+        int col = 0;
+        while (!grid.getCell(0, col).isMine()) {
+            col++;
+        }
+        grid.revealCell(0, col);
+        Assert.assertTrue(grid.isGameOver());
+
+        grid.reset(new SplittableRandom(2L));
+
+        Assert.assertFalse(grid.isGameOver());
+        Assert.assertEquals(80, grid.getRemainingSafeSquares());
+        int mineCount = 0;
+        for (int row = 0; row < 10; row++) {
+            for (int c = 0; c < 10; c++) {
+                Assert.assertFalse(grid.getCell(row, c).isRevealed());
+                if (grid.getCell(row, c).isMine()) {
+                    mineCount++;
+                }
+            }
+        }
+        Assert.assertEquals(20, mineCount);
+    }
+
+    @Test
+    public void testResetWithNewDimensions() {
+        MinesweeperGridService grid = new MinesweeperGridService(10, 20, 1L);
+        grid.reset(6, 5, new SplittableRandom(3L));
+
+        Assert.assertEquals(6, grid.getSize());
+        Assert.assertEquals(5, grid.getTotalMines());
+        Assert.assertEquals(6, grid.getBoard().getSize());
+        Assert.assertEquals(31, grid.getRemainingSafeSquares());
+
+        MinesweeperGridService seeded = new MinesweeperGridService(6, 5, 3L);
+        for (int index = 0; index < 36; index++) {
+            Assert.assertEquals(seeded.getBoard().isMine(index), grid.getBoard().isMine(index));
+        }
+    }
+
+    @Test
+    public void testResetNeverReleasesTheLiveBoard() {
+        BoardPool pool = new BoardPool(2, 1000);
+        MinesweeperBoard pooled = new MinesweeperBoard(6);
+        pool.release(pooled);
+        MinesweeperGridService grid = new MinesweeperGridService(10, 20, 1L);
+        grid.setBoardPool(pool);
+        MinesweeperBoard previous = grid.getBoard();
+
+        grid.reset(6, 5, new SplittableRandom(3L));
+
+        Assert.assertSame(pooled, grid.getBoard());
+        Assert.assertEquals(0, pool.getPooledBoardCount(10));
+        Assert.assertEquals(10, previous.getSize());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testResetWithInvalidMines() {
+        new MinesweeperGridService(4, 3, 1L).reset(4, 10, new SplittableRandom(1L));
+    }
+
+    @Test
+    public void testRevealLargeEmptyGrid() {
+        randomHelper.setValues(new int[]{0});
+        minesweeperGrid = new MinesweeperGridService(2000, 1, randomHelper);
+
+        Assert.assertTrue(minesweeperGrid.revealCell(1999, 1999));
+        Assert.assertEquals(2000 * 2000 - 1, minesweeperGrid.getLastRevealedCount());
+        Assert.assertTrue(minesweeperGrid.isGameWon());
+        Assert.assertFalse(minesweeperGrid.getCell(0, 0).isRevealed());
+    }
+
+    @Test
+    public void testToroidalCascadeWrapsAround() {
+        MinesweeperGridService grid = gridWithMine(BoardTopology.toroidal(4, 4), 0);
+
+        Assert.assertEquals(1, grid.getCell(3, 3).getAdjacentMines());
+        Assert.assertEquals(1, grid.getCell(0, 3).getAdjacentMines());
+        Assert.assertEquals(0, grid.getCell(2, 2).getAdjacentMines());
+
+        Assert.assertTrue(grid.revealCell(2, 2));
+        Assert.assertEquals(15, grid.getLastRevealedCount());
+        Assert.assertTrue(grid.isGameWon());
+    }
+
+    @Test
+    public void testHexagonalCascade() {
+        MinesweeperGridService grid = gridWithMine(BoardTopology.hexagonal(4, 4), 5);
+
+        // The corner does not touch the mine diagonally on a hexagonal board
+        Assert.assertEquals(0, grid.getCell(0, 0).getAdjacentMines());
+        Assert.assertEquals(1, grid.getCell(2, 2).getAdjacentMines());
+
+        Assert.assertTrue(grid.revealCell(3, 3));
+        // The corner and its neighbour are cut off from the cascade by the numbers around the mine
+        Assert.assertEquals(13, grid.getLastRevealedCount());
+        Assert.assertFalse(grid.getCell(0, 0).isRevealed());
+        Assert.assertFalse(grid.getCell(0, 1).isRevealed());
+        Assert.assertFalse(grid.isGameWon());
+    }
+
+    @Test
+    public void testRectangularGrid() {
+        MinesweeperGridService grid = new MinesweeperGridService(BoardTopology.rectangular(3, 7), 4,
+                new SplittableRandom(5L), new FloydMinePlacement());
+
+        Assert.assertEquals(3, grid.getRows());
+        Assert.assertEquals(7, grid.getCols());
+        Assert.assertEquals(17, grid.getRemainingSafeSquares());
+        Assert.assertTrue(grid.isValidPosition(2, 6));
+        Assert.assertFalse(grid.isValidPosition(6, 2));
+    }
+
+    private static MinesweeperGridService gridWithMine(BoardTopology topology, int mine) {
+        MinesweeperBoard board = new MinesweeperBoard(topology);
+        board.setMine(mine, true);
+        AdjacencyCounter.countAdjacentMines(board);
+        return new MinesweeperGridService(board, 1, false, false);
+    }
     
-}
\ No newline at end of file
+}
@@ -0,0 +1,53 @@
+package com.gic.minesweeper.simulation;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+public class SimulationRunnerTest {
+
+    @Test
+    public void testResultsDoNotDependOnParallelism() {
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool parallel = new ForkJoinPool(4);
+        try {
+            SimulationStatistics first = new SimulationRunner(single).run(9, 10, 2000, 5L, SolverGameStrategy::new);
+            SimulationStatistics second = new SimulationRunner(parallel).run(9, 10, 2000, 5L, SolverGameStrategy::new);
+
+            Assert.assertEquals(2000, first.getGames());
+            Assert.assertEquals(first.getWins(), second.getWins());
+            Assert.assertEquals(first.getMeanSafeSquaresRevealed(), second.getMeanSafeSquaresRevealed(), 0);
+        } finally {
+            single.shutdown();
+            parallel.shutdown();
+        }
+    }
+
+    @Test
+    public void testBeginnerWinRate() {
+        SimulationStatistics statistics = new SimulationRunner().run(9, 10, 4000, 11L, SolverGameStrategy::new);
+
+        Assert.assertTrue(statistics.toString(), statistics.getWinRate() > 0.5);
+        Assert.assertTrue(statistics.getWinRateMargin() < 0.02);
+    }
+
+    @Test
+    public void testCustomStrategy() {
+        SimulationStatistics statistics = new SimulationRunner().run(5, 8, 300, 3L,
+                () -> (minesweeperGrid, random) -> {
+                    int size = minesweeperGrid.getSize();
+                    while (!minesweeperGrid.isGameOver() && !minesweeperGrid.isGameWon()) {
+                        minesweeperGrid.revealCell(random.nextInt(size), random.nextInt(size));
+                    }
+                });
+
+        Assert.assertEquals(300, statistics.getGames());
+        Assert.assertTrue(statistics.getWins() < 300);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoGames() {
+        new SimulationRunner().run(9, 10, 0, 1L, SolverGameStrategy::new);
+    }
+}
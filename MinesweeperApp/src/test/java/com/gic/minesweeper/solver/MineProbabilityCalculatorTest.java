@@ -0,0 +1,191 @@
+package com.gic.minesweeper.solver;
+
+import com.gic.minesweeper.model.MinesweeperBoard;
+import com.gic.minesweeper.service.MinesweeperGridService;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MineProbabilityCalculatorTest {
+
+    @Test
+    public void testMatchesBruteForce() {
+        for (long seed = 0; seed < 40; seed++) {
+            MinesweeperGridService minesweeperGrid = new MinesweeperGridService(5, 5, seed);
+            MinesweeperBoard board = minesweeperGrid.getBoard();
+            MineProbabilityCalculator calculator = new MineProbabilityCalculator(minesweeperGrid);
+
+            for (int index = 0; index < 25 && !minesweeperGrid.isGameOver() && !minesweeperGrid.isGameWon(); index += 7) {
+                if (board.isMine(index)) {
+                    continue;
+                }
+                minesweeperGrid.revealCell(index / 5, index % 5);
+                calculator.update();
+
+                double[] expected = bruteForce(board, 5);
+                for (int square = 0; square < 25; square++) {
+                    Assert.assertEquals("Seed " + seed + " square " + square,
+                            expected[square], calculator.getProbability(square), 1e-9);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testProbabilitiesSumToMines() {
+        MinesweeperGridService minesweeperGrid = new MinesweeperGridService(16, 40, 9L);
+        MinesweeperSolver solver = new MinesweeperSolver(minesweeperGrid, new LowestRiskGuessPolicy());
+        MineProbabilityCalculator calculator = new MineProbabilityCalculator(minesweeperGrid);
+
+        while (solver.step()) {
+            if (minesweeperGrid.isGameOver()) {
+                break;
+            }
+            calculator.update();
+            double sum = 0;
+            for (int index = 0; index < 256; index++) {
+                sum += calculator.getProbability(index);
+                if (solver.isKnownMine(index)) {
+                    Assert.assertEquals(1, calculator.getProbability(index), 1e-9);
+                }
+                if (solver.isKnownSafe(index)) {
+                    Assert.assertEquals(0, calculator.getProbability(index), 1e-9);
+                }
+            }
+            Assert.assertEquals(40, sum, 1e-6);
+        }
+    }
+
+    @Test
+    public void testUnchangedComponentsAreCached() {
+        MinesweeperGridService minesweeperGrid = new MinesweeperGridService(16, 40, 4L);
+        new MinesweeperSolver(minesweeperGrid, new LowestRiskGuessPolicy()).step();
+        MineProbabilityCalculator calculator = new MineProbabilityCalculator(minesweeperGrid);
+        long enumerations = calculator.getEnumerationCount();
+        Assert.assertEquals(calculator.getComponentCount(), enumerations);
+
+        calculator.update();
+        Assert.assertEquals(enumerations, calculator.getEnumerationCount());
+    }
+
+    @Test
+    public void testIncrementalUpdatesMatchRebuild() {
+        for (long seed = 0; seed < 10; seed++) {
+            MinesweeperGridService minesweeperGrid = new MinesweeperGridService(16, 40, seed);
+            MinesweeperSolver solver = new MinesweeperSolver(minesweeperGrid, new LowestRiskGuessPolicy());
+            MineProbabilityCalculator calculator = new MineProbabilityCalculator(minesweeperGrid);
+
+            for (int step = 0; solver.step() && !minesweeperGrid.isGameOver(); step++) {
+                // Skipping an update leaves the calculator behind the board, which should make it rebuild
+                if (step % 5 == 4) {
+                    continue;
+                }
+                calculator.update();
+                MineProbabilityCalculator rebuilt = new MineProbabilityCalculator(minesweeperGrid);
+                Assert.assertEquals(rebuilt.getComponentCount(), calculator.getComponentCount());
+                for (int index = 0; index < 256; index++) {
+                    Assert.assertEquals("Seed " + seed + " square " + index,
+                            rebuilt.getProbability(index), calculator.getProbability(index), 1e-9);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLargeComponentsAreApproximated() {
+        MinesweeperGridService minesweeperGrid = new MinesweeperGridService(16, 40, 4L);
+        new MinesweeperSolver(minesweeperGrid, new LowestRiskGuessPolicy()).step();
+        MineProbabilityCalculator calculator = new MineProbabilityCalculator(minesweeperGrid, 1);
+
+        Assert.assertTrue(calculator.getComponentCount() > 0);
+        Assert.assertFalse(calculator.isExact());
+        Assert.assertEquals(0, calculator.getEnumerationCount());
+        double sum = 0;
+        for (int index = 0; index < 256; index++) {
+            double probability = calculator.getProbability(index);
+            Assert.assertTrue(probability >= 0 && probability <= 1);
+            sum += probability;
+        }
+        Assert.assertEquals(40, sum, 1);
+        Assert.assertTrue(new MineProbabilityCalculator(minesweeperGrid).isExact());
+    }
+
+    @Test
+    public void testUntouchedBoardIsUniform() {
+        MinesweeperGridService minesweeperGrid = new MinesweeperGridService(10, 20, 1L);
+        MineProbabilityCalculator calculator = new MineProbabilityCalculator(minesweeperGrid);
+
+        Assert.assertEquals(0, calculator.getComponentCount());
+        Assert.assertEquals(0.2, calculator.getProbability(3, 4), 1e-12);
+    }
+
+    /**
+     * Enumerates every placement of the unlocated mines over the hidden squares.
+     */
+    private static double[] bruteForce(MinesweeperBoard board, int size) {
+        int squareCount = size * size;
+        int mines = 0;
+        int hiddenCount = 0;
+        int[] hidden = new int[squareCount];
+        for (int index = 0; index < squareCount; index++) {
+            if (board.isMine(index)) {
+                mines++;
+            }
+            if (!board.isRevealed(index)) {
+                hidden[hiddenCount++] = index;
+            }
+        }
+
+        double[] counts = new double[squareCount];
+        boolean[] layout = new boolean[squareCount];
+        double total = place(board, size, hidden, hiddenCount, 0, mines, layout, counts);
+        for (int index = 0; index < squareCount; index++) {
+            counts[index] /= total;
+        }
+        return counts;
+    }
+
+    private static double place(MinesweeperBoard board, int size, int[] hidden, int hiddenCount, int from, int mines,
+                                boolean[] layout, double[] counts) {
+        if (mines == 0) {
+            if (!consistent(board, size, layout)) {
+                return 0;
+            }
+            for (int index = 0; index < layout.length; index++) {
+                if (layout[index]) {
+                    counts[index]++;
+                }
+            }
+            return 1;
+        }
+
+        double total = 0;
+        for (int i = from; i <= hiddenCount - mines; i++) {
+            layout[hidden[i]] = true;
+            total += place(board, size, hidden, hiddenCount, i + 1, mines - 1, layout, counts);
+            layout[hidden[i]] = false;
+        }
+        return total;
+    }
+
+    private static boolean consistent(MinesweeperBoard board, int size, boolean[] layout) {
+        for (int index = 0; index < layout.length; index++) {
+            if (!board.isRevealed(index)) {
+                continue;
+            }
+            int row = index / size;
+            int col = index % size;
+            int count = 0;
+            for (int r = Math.max(0, row - 1); r <= Math.min(size - 1, row + 1); r++) {
+                for (int c = Math.max(0, col - 1); c <= Math.min(size - 1, col + 1); c++) {
+                    if (layout[r * size + c]) {
+                        count++;
+                    }
+                }
+            }
+            if (count != board.getAdjacentMines(index)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
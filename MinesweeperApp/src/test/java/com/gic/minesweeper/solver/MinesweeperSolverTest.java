@@ -0,0 +1,133 @@
+package com.gic.minesweeper.solver;
+
+import com.gic.minesweeper.model.MinesweeperBoard;
+import com.gic.minesweeper.service.MinesweeperGridService;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+public class MinesweeperSolverTest {
+
+    @Test
+    public void testDeducedMovesNeverHitMines() {
+        for (long seed = 0; seed < 200; seed++) {
+            MinesweeperGridService minesweeperGrid = new MinesweeperGridService(9, 10, seed);
+            MinesweeperSolver solver = new MinesweeperSolver(minesweeperGrid, new LowestRiskGuessPolicy());
+
+            boolean won = solver.solve();
+
+            Assert.assertEquals(won, minesweeperGrid.isGameWon());
+            if (!won) {
+                Assert.assertTrue("Seed " + seed, solver.isLastMoveGuessed());
+            }
+        }
+    }
+
+    @Test
+    public void testDeductionsAreCorrect() {
+        MinesweeperGridService minesweeperGrid = new MinesweeperGridService(30, 99, 7L);
+        MinesweeperSolver solver = new MinesweeperSolver(minesweeperGrid, new RandomGuessPolicy(new SplittableRandom(7)));
+        MinesweeperBoard board = minesweeperGrid.getBoard();
+
+        while (solver.step()) {
+            for (int index = 0; index < board.getSquareCount(); index++) {
+                if (solver.isKnownMine(index)) {
+                    Assert.assertTrue(board.isMine(index));
+                }
+                if (solver.isKnownSafe(index)) {
+                    Assert.assertFalse(board.isMine(index) && !board.isRevealed(index));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testWinsMostBeginnerGames() {
+        int wins = 0;
+        for (long seed = 0; seed < 200; seed++) {
+            MinesweeperGridService minesweeperGrid = new MinesweeperGridService(9, 10, seed);
+            if (new MinesweeperSolver(minesweeperGrid, new LowestRiskGuessPolicy()).solve()) {
+                wins++;
+            }
+        }
+        Assert.assertTrue("Wins: " + wins, wins > 100);
+    }
+
+    @Test
+    public void testSolvesLargeBoard() {
+        MinesweeperGridService minesweeperGrid = new MinesweeperGridService(500, 25000, 3L);
+        MinesweeperSolver solver = new MinesweeperSolver(minesweeperGrid, new LowestRiskGuessPolicy());
+        solver.solve();
+
+        Assert.assertTrue(solver.getDeducedMoveCount() > solver.getGuessCount());
+    }
+
+    @Test
+    public void testResetMatchesNewSolver() {
+        MinesweeperGridService reused = new MinesweeperGridService(9, 10, 5L);
+        MinesweeperSolver solver = new MinesweeperSolver(reused, new LowestRiskGuessPolicy());
+        solver.solve();
+
+        for (long seed = 0; seed < 20; seed++) {
+            reused.reset(new SplittableRandom(seed));
+            solver.reset();
+            boolean won = solver.solve();
+
+            MinesweeperGridService fresh = new MinesweeperGridService(9, 10, 5L);
+            fresh.reset(new SplittableRandom(seed));
+            MinesweeperSolver freshSolver = new MinesweeperSolver(fresh, new LowestRiskGuessPolicy());
+            Assert.assertEquals(freshSolver.solve(), won);
+            Assert.assertEquals(freshSolver.getGuessCount(), solver.getGuessCount());
+            Assert.assertEquals(freshSolver.getDeducedMoveCount(), solver.getDeducedMoveCount());
+        }
+    }
+
+    @Test
+    public void testFrontierMatchesFullScan() {
+        MinesweeperGridService minesweeperGrid = new MinesweeperGridService(30, 99, 11L);
+        MinesweeperSolver solver = new MinesweeperSolver(minesweeperGrid, new LowestRiskGuessPolicy());
+
+        while (solver.step()) {
+            int frontierCount = 0;
+            int firstInterior = -1;
+            for (int index = 0; index < solver.getSquareCount(); index++) {
+                if (solver.isUnknown(index) && solver.getFrontierRisk(index) >= 0) {
+                    frontierCount++;
+                } else if (solver.isUnknown(index) && firstInterior < 0) {
+                    firstInterior = index;
+                }
+            }
+            Assert.assertEquals(frontierCount, solver.getFrontierCount());
+            for (int i = 0; i < solver.getFrontierCount(); i++) {
+                int index = solver.getFrontierSquare(i);
+                Assert.assertTrue(solver.isUnknown(index) && solver.getFrontierRisk(index) >= 0);
+            }
+            Assert.assertEquals(firstInterior, solver.firstInteriorSquare());
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testPlayerFlagsDoNotStallTheSolver() {
+        for (long seed = 0; seed < 20; seed++) {
+            MinesweeperGridService minesweeperGrid = new MinesweeperGridService(9, 10, seed);
+            for (int row = 0; row < 9; row++) {
+                for (int col = 0; col < 9; col += 2) {
+                    minesweeperGrid.setFlag(row, col, true);
+                }
+            }
+            MinesweeperSolver solver = new MinesweeperSolver(minesweeperGrid, new LowestRiskGuessPolicy());
+
+            Assert.assertEquals(solver.solve(), minesweeperGrid.isGameWon());
+            Assert.assertTrue(minesweeperGrid.isGameOver() || minesweeperGrid.isGameWon());
+        }
+    }
+
+    @Test
+    public void testStepAfterGameOver() {
+        MinesweeperGridService minesweeperGrid = new MinesweeperGridService(4, 3, 1L);
+        MinesweeperSolver solver = new MinesweeperSolver(minesweeperGrid, new RandomGuessPolicy(new SplittableRandom(1)));
+        solver.solve();
+        Assert.assertFalse(solver.step());
+    }
+}
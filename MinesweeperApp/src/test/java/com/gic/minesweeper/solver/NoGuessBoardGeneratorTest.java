@@ -0,0 +1,59 @@
+package com.gic.minesweeper.solver;
+
+import com.gic.minesweeper.model.MinesweeperBoard;
+import com.gic.minesweeper.service.MinesweeperGridService;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class NoGuessBoardGeneratorTest {
+
+    @Test
+    public void testBoardsAreSolvableWithoutGuessing() {
+        NoGuessBoardGenerator generator = new NoGuessBoardGenerator();
+        for (long seed = 0; seed < 10; seed++) {
+            MinesweeperGridService minesweeperGrid = generator.generate(16, 40, 8, 8, seed, Duration.ofSeconds(30));
+            MinesweeperBoard board = minesweeperGrid.getBoard();
+
+            Assert.assertEquals(40, minesweeperGrid.getTotalMines());
+            Assert.assertEquals(256 - 40, minesweeperGrid.getRemainingSafeSquares());
+            Assert.assertEquals(0, board.getAdjacentMines(board.indexOf(8, 8)));
+            Assert.assertFalse(board.isMine(board.indexOf(8, 8)));
+
+            minesweeperGrid.revealCell(8, 8);
+            MinesweeperSolver solver = new MinesweeperSolver(minesweeperGrid, new LowestRiskGuessPolicy());
+            Assert.assertTrue("Seed " + seed, solver.solve());
+            Assert.assertEquals(0, solver.getGuessCount());
+        }
+    }
+
+    @Test
+    public void testExpertBoardWithRepairs() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            NoGuessBoardGenerator generator = new NoGuessBoardGenerator(executor, 4, 32);
+            MinesweeperGridService minesweeperGrid = generator.generate(24, 99, 0, 0, 1L, Duration.ofSeconds(60));
+
+            minesweeperGrid.revealCell(0, 0);
+            MinesweeperSolver solver = new MinesweeperSolver(minesweeperGrid, new LowestRiskGuessPolicy());
+            Assert.assertTrue(solver.solve());
+            Assert.assertEquals(0, solver.getGuessCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testTimeout() {
+        new NoGuessBoardGenerator(Executors.newSingleThreadExecutor(), 1, 0)
+                .generate(20, 140, 10, 10, 1L, Duration.ofMillis(50));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMinesDoNotFitOutsideFirstClick() {
+        new NoGuessBoardGenerator().generate(3, 3, 1, 1, 1L, Duration.ofSeconds(1));
+    }
+}
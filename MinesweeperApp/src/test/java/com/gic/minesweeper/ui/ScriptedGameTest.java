@@ -0,0 +1,110 @@
+package com.gic.minesweeper.ui;
+
+import com.gic.minesweeper.controller.GameController;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class ScriptedGameTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testFinalBoardMatchesInteractiveGame() throws IOException {
+        String output = play("A1 b2,C3\n\nzz9 A0 4B\r\nD4", "--size", "4", "--mines", "3", "--seed", "5");
+
+        GameController game = new GameController(4, 3, 5L);
+        int moves = 0;
+        for (String square : new String[]{"A1", "B2", "C3", "D4"}) {
+            if (!game.isGameOver()) {
+                game.selectSquare(square);
+                moves++;
+            }
+        }
+
+        Assert.assertTrue(output, output.startsWith(game.gridView()));
+        Assert.assertTrue(output, output.contains("status=" + (game.isGameWon() ? "WON" : game.isGameOver() ? "LOST" : "PLAYING")));
+        Assert.assertTrue(output, moves < 4 || output.contains("invalid=3"));
+    }
+
+    @Test
+    public void testSummaryFromFile() throws IOException {
+        Path moves = folder.newFile("moves.txt").toPath();
+        StringBuilder script = new StringBuilder();
+        for (int row = 0; row < 30; row++) {
+            for (int col = 1; col <= 30; col++) {
+                script.append((char) ('A' + row % 26)).append(col).append('\n');
+            }
+        }
+        Files.writeString(moves, script);
+
+        String output = play("", "--size", "26", "--mines", "1", "--seed", "3", "--moves", moves.toString(),
+                "--output", "summary");
+
+        Assert.assertTrue(output, output.startsWith("moves="));
+        Assert.assertFalse(output, output.contains("_"));
+        Assert.assertFalse(output, output.contains("PLAYING"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingMines() {
+        ScriptedGame.fromArguments(new String[]{"--size", "4"});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidOutput() {
+        ScriptedGame.fromArguments(new String[]{"--size", "4", "--mines", "2", "--output", "all"});
+    }
+
+    @Test
+    public void testMoveReader() throws IOException {
+        InputStream in = new ByteArrayInputStream("a1  AA3,B0 C9x\nD2".getBytes(StandardCharsets.US_ASCII));
+        MoveReader moveReader = new MoveReader(in, 4);
+
+        Assert.assertEquals(0, moveReader.nextMove(30));
+        Assert.assertEquals(26 * 30 + 2, moveReader.nextMove(30));
+        Assert.assertEquals(MoveReader.INVALID, moveReader.nextMove(30));
+        Assert.assertEquals(MoveReader.INVALID, moveReader.nextMove(30));
+        Assert.assertEquals(3 * 30 + 1, moveReader.nextMove(30));
+        Assert.assertEquals(MoveReader.END, moveReader.nextMove(30));
+    }
+
+    @Test
+    public void testMoveReaderWithByteOrderMarkAndHighBytes() throws IOException {
+        byte[] script = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF, 'A', '1', ' ', (byte) 0xC3, (byte) 0xA9, '2', ' ', 'B', '2'};
+        MoveReader moveReader = new MoveReader(new ByteArrayInputStream(script), 2);
+
+        Assert.assertEquals(0, moveReader.nextMove(4));
+        Assert.assertEquals(MoveReader.INVALID, moveReader.nextMove(4));
+        Assert.assertEquals(5, moveReader.nextMove(4));
+        Assert.assertEquals(MoveReader.END, moveReader.nextMove(4));
+    }
+
+    @Test
+    public void testScriptWithByteOrderMark() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ScriptedGame.fromArguments(new String[]{"--size", "4", "--mines", "1", "--seed", "2", "--output", "summary"})
+                .run(new ByteArrayInputStream("\uFEFFA1 A2".getBytes(StandardCharsets.UTF_8)), out);
+        String output = out.toString(StandardCharsets.US_ASCII);
+
+        Assert.assertFalse(output, output.startsWith("moves=0 "));
+        Assert.assertTrue(output, output.contains("invalid=0"));
+    }
+
+    private static String play(String moves, String... args) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ScriptedGame.fromArguments(args)
+                .run(new ByteArrayInputStream(moves.getBytes(StandardCharsets.US_ASCII)), out);
+        return out.toString(StandardCharsets.US_ASCII);
+    }
+}
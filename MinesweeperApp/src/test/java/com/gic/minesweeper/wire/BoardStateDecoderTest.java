@@ -0,0 +1,120 @@
+package com.gic.minesweeper.wire;
+
+import com.gic.minesweeper.model.MinesweeperBoard;
+import com.gic.minesweeper.service.AdjacencyCounter;
+import com.gic.minesweeper.service.MinesweeperGridService;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class BoardStateDecoderTest {
+
+    private MinesweeperGridService grid;
+    private BoardStateEncoder encoder;
+    private BoardStateDecoder decoder;
+
+    @Before
+    public void setUp() {
+        MinesweeperBoard board = new MinesweeperBoard(4);
+        board.setMine(0, true);
+        AdjacencyCounter.countAdjacentMines(board);
+        grid = new MinesweeperGridService(board, 1, false, false);
+        encoder = new BoardStateEncoder(grid, 4);
+        decoder = new BoardStateDecoder();
+    }
+
+    @Test
+    public void testDeltaBeforeSnapshotIsAGap() {
+        grid.revealCell(0, 1);
+
+        Assert.assertFalse(decoder.apply(encoder.recordReveal()));
+        Assert.assertEquals(-1, decoder.getVersion());
+    }
+
+    @Test
+    public void testStaleDeltaIsIgnored() {
+        grid.revealCell(0, 1);
+        ByteBuffer delta = encoder.recordReveal();
+        decoder.apply(encoder.snapshot());
+
+        Assert.assertTrue(decoder.apply(delta));
+        Assert.assertEquals(1, decoder.getVersion());
+        Assert.assertEquals(1, decoder.getSquare(0, 1));
+    }
+
+    @Test
+    public void testApplyDoesNotConsumeMessage() {
+        ByteBuffer snapshot = encoder.snapshot();
+        decoder.apply(snapshot);
+
+        Assert.assertEquals(0, snapshot.position());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTruncatedSnapshot() {
+        ByteBuffer snapshot = encoder.snapshot();
+        decoder.apply(snapshot.limit(snapshot.limit() - 1));
+    }
+
+    @Test
+    public void testOversizedSnapshotIsRejectedBeforeDecoding() {
+        ByteBuffer header = ByteBuffer.allocate(BoardStateEncoder.SNAPSHOT_HEADER_BYTES + 1);
+        header.put(BoardStateEncoder.TYPE_SNAPSHOT).put((byte) 0).put((byte) 0)
+                .put((byte) BoardStateEncoder.ENCODING_PACKED).putLong(1).putInt(4000).putInt(4000).putInt(1)
+                .put((byte) 0x99).flip();
+        assertRejected(header);
+
+        ByteBuffer limited = encoder.snapshot();
+        try {
+            new BoardStateDecoder(15).apply(limited);
+            Assert.fail("A board larger than the limit should be rejected");
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage().contains("Board size"));
+        }
+    }
+
+    @Test
+    public void testRunsThatDoNotCoverTheBoardAreRejected() {
+        ByteBuffer snapshot = ByteBuffer.allocate(BoardStateEncoder.SNAPSHOT_HEADER_BYTES + 2);
+        snapshot.put(BoardStateEncoder.TYPE_SNAPSHOT).put((byte) 0).put((byte) 0)
+                .put((byte) BoardStateEncoder.ENCODING_RUN_LENGTH).putLong(1).putInt(1000).putInt(1000).putInt(1)
+                .put((byte) (BoardStateEncoder.HIDDEN | BoardStateEncoder.MAX_SHORT_RUN << 4)).put((byte) 1).flip();
+        assertRejected(snapshot);
+    }
+
+    @Test
+    public void testInvalidDeltaChangesNothing() {
+        decoder.apply(encoder.snapshot());
+        ByteBuffer delta = ByteBuffer.allocate(16);
+        delta.put(BoardStateEncoder.TYPE_DELTA).put((byte) BoardStateEncoder.STATUS_PLAYING).putLong(1);
+        Varint.put(delta, 2);
+        Varint.put(delta, Varint.zigZag(1));
+        Varint.put(delta, Varint.zigZag(1));
+        delta.put((byte) (1 | 15 << 4)).flip();
+
+        assertRejected(delta);
+        Assert.assertEquals(BoardStateEncoder.HIDDEN, decoder.getSquare(0, 1));
+        Assert.assertEquals(0, decoder.getVersion());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidType() {
+        decoder.apply(ByteBuffer.wrap(new byte[]{7}));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSquareBeforeSnapshot() {
+        decoder.getSquare(0, 0);
+    }
+
+    private void assertRejected(ByteBuffer message) {
+        try {
+            decoder.apply(message);
+            Assert.fail("The message should be rejected");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+}
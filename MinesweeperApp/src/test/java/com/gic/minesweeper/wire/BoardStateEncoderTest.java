@@ -0,0 +1,178 @@
+package com.gic.minesweeper.wire;
+
+import com.gic.minesweeper.model.BoardTopology;
+import com.gic.minesweeper.model.MinesweeperBoard;
+import com.gic.minesweeper.service.AdjacencyCounter;
+import com.gic.minesweeper.service.FloydMinePlacement;
+import com.gic.minesweeper.service.MinesweeperGridService;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class BoardStateEncoderTest {
+
+    @Test
+    public void testNewGameSnapshotIsRunLengthEncoded() {
+        MinesweeperGridService grid = new MinesweeperGridService(100, 500, 1L);
+        ByteBuffer snapshot = new BoardStateEncoder(grid, 8).snapshot();
+
+        Assert.assertEquals(BoardStateEncoder.ENCODING_RUN_LENGTH, snapshot.get(3));
+        Assert.assertTrue(snapshot.remaining() < BoardStateEncoder.SNAPSHOT_HEADER_BYTES + 16);
+
+        BoardStateDecoder decoder = new BoardStateDecoder();
+        Assert.assertTrue(decoder.apply(snapshot));
+        Assert.assertEquals(100, decoder.getRows());
+        Assert.assertEquals(500, decoder.getTotalMines());
+        Assert.assertEquals(BoardStateEncoder.HIDDEN, decoder.getSquare(99, 99));
+    }
+
+    @Test
+    public void testSnapshotRoundTrip() {
+        MinesweeperGridService grid = new MinesweeperGridService(BoardTopology.hexagonal(9, 13), 20,
+                new SplittableRandom(4L), new FloydMinePlacement());
+        for (int index = 0; index < 117; index += 7) {
+            if (!grid.getBoard().isMine(index)) {
+                grid.revealCell(index / 13, index % 13);
+            }
+        }
+        int hidden = 116;
+        while (grid.getBoard().isRevealed(hidden)) {
+            hidden--;
+        }
+        grid.setFlag(hidden / 13, hidden % 13, true);
+
+        BoardStateEncoder encoder = new BoardStateEncoder(grid, 8);
+        BoardStateDecoder decoder = new BoardStateDecoder();
+        decoder.apply(encoder.snapshot());
+
+        Assert.assertEquals(BoardTopology.Shape.HEXAGONAL, decoder.getShape());
+        assertSameView(grid, decoder);
+        Assert.assertTrue(encoder.snapshot().remaining() <= BoardStateEncoder.SNAPSHOT_HEADER_BYTES + (117 + 1) / 2);
+    }
+
+    @Test
+    public void testDeltasFollowReveals() {
+        MinesweeperGridService grid = gridWithMine(0);
+        BoardStateEncoder encoder = new BoardStateEncoder(grid, 8);
+        BoardStateDecoder decoder = new BoardStateDecoder();
+        decoder.apply(encoder.snapshot());
+
+        grid.revealCell(7, 7);
+        ByteBuffer delta = encoder.recordReveal();
+        Assert.assertEquals(1, encoder.getVersion());
+        Assert.assertTrue(decoder.apply(delta));
+        Assert.assertEquals(BoardStateEncoder.STATUS_WON, decoder.getStatus());
+        Assert.assertEquals(1, decoder.getSquare(1, 1));
+        Assert.assertEquals(BoardStateEncoder.HIDDEN, decoder.getSquare(0, 0));
+        assertSameView(grid, decoder);
+
+        // 63 squares of gaps of 1 or cols - 1 fit in about a byte and a half each
+        Assert.assertTrue(delta.remaining() < 63 * 2);
+    }
+
+    @Test
+    public void testRevealThatChangesNothingHasNoDelta() {
+        MinesweeperGridService grid = gridWithMine(0);
+        BoardStateEncoder encoder = new BoardStateEncoder(grid, 8);
+        grid.revealCell(1, 1);
+        encoder.recordReveal();
+
+        grid.revealCell(1, 1);
+
+        Assert.assertNull(encoder.recordReveal());
+        Assert.assertEquals(1, encoder.getVersion());
+    }
+
+    @Test
+    public void testCatchUpWithRetainedDeltas() {
+        MinesweeperGridService grid = gridWithMine(0);
+        BoardStateEncoder encoder = new BoardStateEncoder(grid, 2);
+        BoardStateDecoder decoder = new BoardStateDecoder();
+        decoder.apply(encoder.snapshot());
+
+        grid.revealCell(0, 1);
+        encoder.recordReveal();
+        grid.revealCell(1, 0);
+        ByteBuffer second = encoder.recordReveal();
+        Assert.assertFalse(decoder.apply(second));
+
+        List<ByteBuffer> missed = encoder.catchUp(decoder.getVersion());
+        Assert.assertEquals(2, missed.size());
+        for (ByteBuffer message : missed) {
+            Assert.assertTrue(decoder.apply(message));
+        }
+        Assert.assertEquals(2, decoder.getVersion());
+        assertSameView(grid, decoder);
+        Assert.assertTrue(encoder.catchUp(2).isEmpty());
+    }
+
+    @Test
+    public void testCatchUpWithSnapshot() {
+        MinesweeperGridService grid = gridWithMine(0);
+        BoardStateEncoder encoder = new BoardStateEncoder(grid, 1);
+        BoardStateDecoder decoder = new BoardStateDecoder();
+        decoder.apply(encoder.snapshot());
+
+        grid.revealCell(0, 1);
+        encoder.recordReveal();
+        grid.revealCell(1, 0);
+        encoder.recordReveal();
+
+        List<ByteBuffer> missed = encoder.catchUp(decoder.getVersion());
+        Assert.assertEquals(1, missed.size());
+        Assert.assertEquals(BoardStateEncoder.TYPE_SNAPSHOT, missed.get(0).get(0));
+        decoder.apply(missed.get(0));
+        Assert.assertEquals(2, decoder.getVersion());
+        assertSameView(grid, decoder);
+    }
+
+    @Test
+    public void testInvalidateAfterUndo() {
+        MinesweeperGridService grid = gridWithMine(0);
+        grid.enableHistory();
+        BoardStateEncoder encoder = new BoardStateEncoder(grid, 8);
+        grid.revealCell(0, 1);
+        encoder.recordReveal();
+        grid.undo();
+        encoder.invalidate();
+
+        List<ByteBuffer> missed = encoder.catchUp(1);
+        Assert.assertEquals(1, missed.size());
+        BoardStateDecoder decoder = new BoardStateDecoder();
+        decoder.apply(missed.get(0));
+        Assert.assertEquals(BoardStateEncoder.HIDDEN, decoder.getSquare(0, 1));
+    }
+
+    @Test
+    public void testFlagDelta() {
+        MinesweeperGridService grid = gridWithMine(0);
+        BoardStateEncoder encoder = new BoardStateEncoder(grid, 8);
+        BoardStateDecoder decoder = new BoardStateDecoder();
+        decoder.apply(encoder.snapshot());
+
+        grid.setFlag(0, 0, true);
+        decoder.apply(encoder.recordSquares(new int[]{0}, 0, 1));
+
+        Assert.assertEquals(BoardStateEncoder.FLAGGED, decoder.getSquare(0, 0));
+    }
+
+    private static MinesweeperGridService gridWithMine(int mine) {
+        MinesweeperBoard board = new MinesweeperBoard(8);
+        board.setMine(mine, true);
+        AdjacencyCounter.countAdjacentMines(board);
+        return new MinesweeperGridService(board, 1, false, false);
+    }
+
+    private static void assertSameView(MinesweeperGridService grid, BoardStateDecoder decoder) {
+        MinesweeperBoard board = grid.getBoard();
+        for (int row = 0; row < grid.getRows(); row++) {
+            for (int col = 0; col < grid.getCols(); col++) {
+                Assert.assertEquals(row + "," + col, BoardStateEncoder.visibleValue(board, board.indexOf(row, col)),
+                        decoder.getSquare(row, col));
+            }
+        }
+    }
+}